@@ -0,0 +1,125 @@
+package com.example.erm.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Insert throughput per id allocation: one nextval per row against one per SequenceIds.ALLOCATION_SIZE rows,
+// read as pooled or pooled-lo. H2 runs in Oracle mode behind its TCP server so every statement is a real
+// round trip; inserts are JDBC-batched in all three cases, only the sequence traffic differs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdAllocationBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"single", "pooled", "pooled-lo"})
+    private String allocation;
+
+    private Server server;
+    private SessionFactory sessionFactory;
+
+    @Entity(name = "SingleIdRow")
+    @Table(name = "bench_single_id")
+    public static class SingleIdRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_single_seq")
+        @SequenceGenerator(name = "bench_single_seq", sequenceName = "bench_single_seq", allocationSize = 1)
+        private Long id;
+        private String name;
+    }
+
+    @Entity(name = "PooledIdRow")
+    @Table(name = "bench_pooled_id")
+    public static class PooledIdRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_pooled_seq")
+        @SequenceGenerator(name = "bench_pooled_seq", sequenceName = "bench_pooled_seq",
+                allocationSize = SequenceIds.ALLOCATION_SIZE)
+        private Long id;
+        private String name;
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.connection.url",
+                        "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bench;MODE=Oracle;DB_CLOSE_DELAY=-1")
+                .applySetting("hibernate.connection.username", "sa")
+                .applySetting("hibernate.connection.password", "")
+                .applySetting("hibernate.hbm2ddl.auto", "create-drop")
+                .applySetting("hibernate.jdbc.batch_size", "50")
+                .applySetting("hibernate.order_inserts", "true")
+                .applySetting("hibernate.id.optimizer.pooled.preferred",
+                        allocation.equals("pooled-lo") ? "pooled-lo" : "pooled")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(SingleIdRow.class)
+                .addAnnotatedClass(PooledIdRow.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> session.createMutationQuery(
+                "delete from " + (allocation.equals("single") ? "SingleIdRow" : "PooledIdRow")).executeUpdate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        server.stop();
+    }
+
+    // Reported per row
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insert() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                if (allocation.equals("single")) {
+                    SingleIdRow row = new SingleIdRow();
+                    row.name = "row" + i;
+                    session.persist(row);
+                } else {
+                    PooledIdRow row = new PooledIdRow();
+                    row.name = "row" + i;
+                    session.persist(row);
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+}
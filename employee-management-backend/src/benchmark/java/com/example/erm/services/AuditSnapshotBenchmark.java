@@ -0,0 +1,123 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Audit value serialization, Jackson on the entity against the snapshot codec. The department carries
+// 200 users, which Jackson walks and the codec does not; the delta pair includes the diff itself.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditSnapshotBenchmark {
+
+    private ObjectMapper objectMapper;
+    private AuditSnapshotCodec codec;
+    private AuditDiffer differ;
+    private Employee employee;
+    private Employee updated;
+    private Department department;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        codec = new AuditSnapshotCodec(objectMapper);
+        differ = new AuditDiffer(codec);
+
+        department = new Department();
+        department.setDeptId(1L);
+        department.setDeptName("Engineering");
+        department.setCreatedAt(LocalDateTime.of(2015, 1, 5, 8, 30));
+        for (long i = 0; i < 200; i++) {
+            User user = new User();
+            user.setUserId(i);
+            user.setUsername("user" + i);
+            user.setPasswordHash("$2a$10$abcdefghijklmnopqrstuv" + i);
+            user.setRole(UserRole.MANAGER);
+            user.setEmail("user" + i + "@example.com");
+            user.setCreatedAt(LocalDateTime.of(2020, 1, 1, 0, 0));
+            user.setDepartment(department);
+            department.getUsers().add(user);
+        }
+
+        employee = employee(new BigDecimal("85000.00"));
+        updated = employee(new BigDecimal("91000.00"));
+        updated.setJobTitle("Staff Engineer");
+    }
+
+    @Benchmark
+    public String jacksonEmployee() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(employee);
+    }
+
+    @Benchmark
+    public String codecEmployee() {
+        return codec.write(employee);
+    }
+
+    @Benchmark
+    public String jacksonDepartment() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(department);
+    }
+
+    @Benchmark
+    public String codecDepartment() {
+        return codec.write(department);
+    }
+
+    @Benchmark
+    public String jacksonDelta() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(differ.diff(employee, updated).after());
+    }
+
+    @Benchmark
+    public String codecDelta() {
+        return codec.write(differ.diff(employee, updated).after());
+    }
+
+    private Employee employee(BigDecimal salary) {
+        Employee manager = new Employee();
+        manager.setEmpId(3L);
+        Employee result = new Employee();
+        result.setEmpId(42L);
+        result.setFirstName("Ada");
+        result.setLastName("Lovelace");
+        result.setEmail("ada@example.com");
+        result.setHireDate(LocalDate.of(2019, 4, 1));
+        result.setJobTitle("Senior Engineer");
+        result.setDepartment(department);
+        result.setManager(manager);
+        result.setSalary(salary);
+        result.setStatus(EmployeeStatus.ACTIVE);
+        result.setCreatedAt(LocalDateTime.of(2019, 4, 1, 9, 0));
+        result.setUpdatedAt(LocalDateTime.of(2024, 6, 3, 14, 12, 45));
+        result.setCreatedBy(department.getUsers().get(0));
+        return result;
+    }
+}
@@ -2,7 +2,10 @@ package com.example.erm;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
 @SpringBootApplication
+@EnableScheduling
 public class EmployeeManagementBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,120 @@
+package com.example.erm.config;
+
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+// Short-lived bearer tokens signed with HMAC-SHA256: base64url(payload) "." base64url(signature), where the
+// payload is "expiresAt|role|userId|username". Verifying one needs only the key, no database or BCrypt.
+// The role is fixed for the token's lifetime; services still see the current role through PrincipalCache.
+@Component
+public class AccessTokens {
+    private static final Logger log = LoggerFactory.getLogger(AccessTokens.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record Claims(String username, UserRole role, Long userId, Instant expiresAt) {
+    }
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    @Autowired
+    public AccessTokens(@Value("${erm.security.token.secret:}") String secret,
+                        @Value("${erm.security.token.ttl:15m}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    AccessTokens(String secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(keyBytes(secret), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public String issue(User user) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = expiresAt.getEpochSecond() + "|" + user.getRole().name() + "|" + user.getUserId()
+                + "|" + user.getUsername();
+        String encoded = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encoded + "." + ENCODER.encodeToString(sign(encoded));
+    }
+
+    // Empty for anything malformed, forged or expired
+    public Optional<Claims> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String encoded = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(encoded), DECODER.decode(token.substring(dot + 1)))) {
+                return Optional.empty();
+            }
+            String[] fields = new String(DECODER.decode(encoded), StandardCharsets.UTF_8).split("\\|", 4);
+            if (fields.length != 4) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[0]));
+            if (!clock.instant().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Claims(fields[3], UserRole.valueOf(fields[1]), Long.valueOf(fields[2]), expiresAt));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return macs.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    // Without a configured secret each instance signs with its own random key, so tokens are not accepted
+    // by other nodes and do not survive a restart
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("erm.security.token.secret is not set, access tokens are signed with a per-process key");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = Base64.getDecoder().decode(secret.trim());
+        if (bytes.length < 32) {
+            throw new IllegalStateException("erm.security.token.secret must be at least 256 bits, base64-encoded");
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.erm.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// BCrypt at a work factor chosen for the machine it runs on. Hashes made at a lower cost report
+// upgradeEncoding() so a login can re-hash them while the plain password is at hand. Stronger hashes are
+// left alone: calibration runs per node, and nodes on different hardware would otherwise keep re-hashing
+// each other's passwords back and forth. Verify times are published as erm.security.password.verify.
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePasswordEncoder.class);
+    // Cheap enough to time repeatedly; every strength step above it doubles the cost
+    private static final int PROBE_STRENGTH = 6;
+    private static final int PROBE_ROUNDS = 7;
+
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+    private final Timer verifyTimer;
+
+    public AdaptivePasswordEncoder(int strength, MeterRegistry meterRegistry) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.verifyTimer = Timer.builder("erm.security.password.verify")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("erm.security.bcrypt.strength", () -> strength).register(meterRegistry);
+    }
+
+    // Highest strength whose verify time stays within the target, clamped to [minStrength, maxStrength].
+    // Extrapolated from a cheap probe, then confirmed at the chosen strength since frequency scaling and
+    // JIT warm-up make the probe only approximate.
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        long targetNanos = target.toNanos();
+        long probeNanos = medianVerifyNanos(PROBE_STRENGTH, PROBE_ROUNDS);
+
+        int strength = PROBE_STRENGTH;
+        while (strength < maxStrength && probeNanos << (strength + 1 - PROBE_STRENGTH) <= targetNanos) {
+            strength++;
+        }
+        strength = Math.max(strength, minStrength);
+
+        long verifyNanos = medianVerifyNanos(strength, 3);
+        while (strength > minStrength && verifyNanos > targetNanos) {
+            strength--;
+            verifyNanos = medianVerifyNanos(strength, 3);
+        }
+        if (verifyNanos > targetNanos) {
+            log.warn("BCrypt strength {} is the configured minimum but verifies in {} ms, over the {} ms target",
+                    strength, Duration.ofNanos(verifyNanos).toMillis(), target.toMillis());
+        } else {
+            log.info("BCrypt strength {} verifies in {} ms on this machine (target {} ms)",
+                    strength, Duration.ofNanos(verifyNanos).toMillis(), target.toMillis());
+        }
+        return strength;
+    }
+
+    public int strength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return verifyTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && cost < strength;
+    }
+
+    // "$2a$10$..." -> 10, or -1 for anything that is not a BCrypt hash
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char ones = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private static long medianVerifyNanos(int strength, int rounds) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode("calibration");
+        long[] samples = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            encoder.matches("calibration", hash);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[rounds / 2];
+    }
+}
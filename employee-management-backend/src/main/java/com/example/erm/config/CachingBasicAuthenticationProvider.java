@@ -0,0 +1,231 @@
+package com.example.erm.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// HTTP Basic authentication that remembers successful password checks for a short TTL, so repeated calls
+// from the same client skip BCrypt. Entries are keyed by an HMAC of username and password under a random
+// per-process key, and a hit also needs the stored hash to be unchanged, so a password change forces a
+// fresh check. Misses run BCrypt on a small dedicated pool with a bounded queue; once that is full the
+// request gets a 503 instead of one more request thread spending 100 ms of CPU. The login endpoint goes
+// through authenticate() and encode() as well, so it shares the same cache and the same bound.
+@Component
+public class CachingBasicAuthenticationProvider implements AuthenticationProvider {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    // Refused because the password-check pool is saturated, answered with 503 rather than 401
+    public static class CredentialCheckSaturatedException extends AuthenticationServiceException {
+        public CredentialCheckSaturatedException(String message) {
+            super(message);
+        }
+    }
+
+    private final UserDetailsService userDetailsService;
+    private final PasswordEncoder passwordEncoder;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Duration checkTimeout;
+    private final ThreadPoolExecutor verifier;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    // Checked for unknown usernames so they take as long to refuse as wrong passwords
+    private volatile String dummyHash;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public CachingBasicAuthenticationProvider(CustomUserDetailsService userDetailsService,
+                                              PasswordEncoder passwordEncoder,
+                                              @Value("${erm.security.credential-cache.enabled:true}") boolean enabled,
+                                              @Value("${erm.security.credential-cache.max-entries:10000}") int maxEntries,
+                                              @Value("${erm.security.credential-cache.ttl:60s}") Duration ttl,
+                                              @Value("${erm.security.password-check.threads:2}") int threads,
+                                              @Value("${erm.security.password-check.queue-capacity:32}") int queueCapacity,
+                                              @Value("${erm.security.password-check.timeout:5s}") Duration checkTimeout,
+                                              MeterRegistry meterRegistry) {
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.checkTimeout = checkTimeout;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.verifier = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-check-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+
+        FunctionCounter.builder("erm.security.credential-cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("erm.security.credential-cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("erm.security.credential-cache.size", entries, Map::size).register(meterRegistry);
+        FunctionCounter.builder("erm.security.password-check.rejected", rejected, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("erm.security.password-check.queue", verifier, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        String username = authentication.getName();
+        String password = String.valueOf(authentication.getCredentials());
+
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            check(password, dummyHash());
+            throw new BadCredentialsException("Bad credentials");
+        }
+
+        String cacheKey = enabled ? cacheKey(username, password) : null;
+        long now = System.nanoTime();
+        if (cacheKey != null) {
+            Entry entry = entries.get(cacheKey);
+            if (entry != null && now - entry.verifiedAt < ttlNanos && entry.passwordHash.equals(user.getPassword())) {
+                hits.incrementAndGet();
+                return authenticated(user);
+            }
+            misses.incrementAndGet();
+        }
+
+        if (!check(password, user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (cacheKey != null) {
+            store(cacheKey, new Entry(user.getPassword(), now));
+        }
+        return authenticated(user);
+    }
+
+    // BCrypt hashing on the same bounded pool, for re-hashing a password at login
+    public String encode(String password) {
+        return onVerifier(() -> passwordEncoder.encode(password));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        verifier.shutdownNow();
+    }
+
+    private boolean check(String password, String passwordHash) {
+        return onVerifier(() -> passwordEncoder.matches(password, passwordHash));
+    }
+
+    private <T> T onVerifier(Callable<T> task) {
+        Future<T> pending;
+        try {
+            pending = verifier.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new CredentialCheckSaturatedException("Too many password checks in progress");
+        }
+        try {
+            return pending.get(checkTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            pending.cancel(true);
+            rejected.incrementAndGet();
+            throw new CredentialCheckSaturatedException("Password check timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while checking the password", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Password check failed", e.getCause());
+        }
+    }
+
+    private void store(String cacheKey, Entry entry) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(existing -> entry.verifiedAt - existing.verifiedAt >= ttlNanos);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(cacheKey, entry);
+    }
+
+    private String dummyHash() {
+        if (dummyHash == null) {
+            dummyHash = passwordEncoder.encode("userNotFoundPassword");
+        }
+        return dummyHash;
+    }
+
+    private String cacheKey(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static Authentication authenticated(UserDetails user) {
+        return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+    }
+
+    private record Entry(String passwordHash, long verifiedAt) {
+    }
+}
@@ -2,8 +2,10 @@ package com.example.erm.config;
 
 
 import com.example.erm.entities.User;
-import com.example.erm.repositories.UserRepository;
+import com.example.erm.services.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,17 +17,16 @@ import java.util.Collections;
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = principalCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        // Add some logging to debug
-        System.out.println("Loading user: " + username);
-        System.out.println("User found: " + user.getUsername() + " with role: " + user.getRole());
+        log.debug("Loaded user {} with role {}", user.getUsername(), user.getRole());
 
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
@@ -1,48 +1,86 @@
 package com.example.erm.config;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
-    private final CustomUserDetailsService userDetailsService;
+    private static final String[] PUBLIC_PATHS = {
+            "/v3/api-docs/**", "/api/v1/users/login", "/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs.yaml"
+    };
+
+    private final AccessTokens accessTokens;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           CachingBasicAuthenticationProvider basicAuthenticationProvider) throws Exception {
         http
                 .csrf().disable()
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/v3/api-docs/**","/api/v1/users/login", "/swagger-ui/**", "/swagger-ui.html","/v3/api-docs.yaml"
-                                ).permitAll()
+                        .requestMatchers(PUBLIC_PATHS).permitAll()
                         .anyRequest().authenticated()
                 )
+                // Bearer tokens from /login first; Basic stays as the fallback
+                .addFilterBefore(new AccessTokenAuthenticationFilter(accessTokens, PUBLIC_PATHS),
+                        BasicAuthenticationFilter.class)
                 .httpBasic()
+                .authenticationEntryPoint(basicEntryPoint())
                 .and()
-                .userDetailsService(userDetailsService)  // Add this line
+                // The only provider, with no parent manager: a wrong password is checked once, on the BCrypt pool
+                .authenticationManager(new ProviderManager(basicAuthenticationProvider))
                 .sessionManagement()
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
         return http.build();
     }
 
+    // 503 with Retry-After when the password-check pool is saturated, the usual Basic challenge otherwise
+    private static AuthenticationEntryPoint basicEntryPoint() {
+        BasicAuthenticationEntryPoint challenge = new BasicAuthenticationEntryPoint();
+        challenge.setRealmName("Realm");
+        return (request, response, exception) -> {
+            if (exception instanceof CachingBasicAuthenticationProvider.CredentialCheckSaturatedException) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            } else {
+                challenge.commence(request, response, exception);
+            }
+        };
+    }
+
 
 
 
+    // strength=0 calibrates at startup against the target verify time
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AdaptivePasswordEncoder passwordEncoder(@Value("${erm.security.bcrypt.strength:0}") int strength,
+                                                   @Value("${erm.security.bcrypt.target-verify-time:100ms}") Duration target,
+                                                   @Value("${erm.security.bcrypt.min-strength:10}") int minStrength,
+                                                   @Value("${erm.security.bcrypt.max-strength:14}") int maxStrength,
+                                                   MeterRegistry meterRegistry) {
+        return new AdaptivePasswordEncoder(
+                strength > 0 ? strength : AdaptivePasswordEncoder.calibrate(target, minStrength, maxStrength),
+                meterRegistry);
     }
 
     @Bean
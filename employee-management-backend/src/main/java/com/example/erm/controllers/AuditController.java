@@ -1,20 +1,21 @@
 package com.example.erm.controllers;
 
+import com.example.erm.dto.AuditSearchCriteria;
 import com.example.erm.dto.AuditTrailDTO;
-import com.example.erm.entities.AuditTrail;
+import com.example.erm.dto.AuditVersionDTO;
+import com.example.erm.dto.CursorSlice;
 import com.example.erm.services.AuditService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.data.repository.query.Param;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/v1/audit")
@@ -27,16 +28,62 @@ public class AuditController {
         this.auditService = auditService;
     }
 
-    //get all audit logs
+    // search audit logs
     @GetMapping
-    @Operation(summary = "Get all audit logs", description = "Get all audit logs")
+    @Operation(summary = "Search audit logs",
+            description = "Filtered audit logs, newest first, paged with an opaque 'after' cursor")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<AuditTrail> getAllAuditLogs(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    public CursorSlice<AuditTrailDTO> searchAuditLogs(
+            @RequestParam(required = false) String tableName,
+            @RequestParam(required = false) Long recordId,
+            @RequestParam(required = false) Long changedBy,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime changedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime changedTo,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") Integer size,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setTableName(tableName);
+        criteria.setRecordId(recordId);
+        criteria.setChangedBy(changedBy);
+        criteria.setAction(action);
+        criteria.setChangedFrom(changedFrom);
+        criteria.setChangedTo(changedTo);
+        criteria.setAfter(after);
+        criteria.setSize(size);
+        criteria.setSortDirection(sortDirection);
 
-        // get all audit logs and convert to DTO
-        return auditService.getAllAuditTrail();
+        return auditService.search(criteria);
+    }
 
+    @GetMapping("/{tableName}/{recordId}")
+    @Operation(summary = "Get record audit trail", description = "Audit logs of one record, newest first")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorSlice<AuditTrailDTO> getAuditTrail(@PathVariable String tableName, @PathVariable Long recordId,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "50") Integer size) {
+        return auditService.getAuditTrail(tableName, recordId, after, size);
+    }
 
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Get user actions", description = "Audit logs written by one user, newest first")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorSlice<AuditTrailDTO> getUserActions(@PathVariable Long userId,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(defaultValue = "50") Integer size) {
+        return auditService.getUserActions(userId, after, size);
+    }
+
+    @GetMapping("/{tableName}/{recordId}/history")
+    @Operation(summary = "Get record history",
+            description = "Audited changes of one record, oldest first, with the full state before and after each")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorSlice<AuditVersionDTO> getRecordHistory(@PathVariable String tableName, @PathVariable Long recordId,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "50") Integer size) {
+        return auditService.getHistory(tableName, recordId, after, size);
     }
 }
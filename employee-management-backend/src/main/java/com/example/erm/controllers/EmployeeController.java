@@ -1,62 +1,82 @@
 package com.example.erm.controllers;
 
+import com.example.erm.config.CurrentUser;
+import com.example.erm.dto.CursorSlice;
+import com.example.erm.dto.EmployeeBatchResult;
+import com.example.erm.dto.EmployeeChangeDTO;
 import com.example.erm.dto.EmployeeDTO;
 import com.example.erm.dto.EmployeeMapper;
 import com.example.erm.dto.EmployeeResponseDTO;
 import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.dto.EmployeeSuggestionDTO;
+import com.example.erm.dto.ExportFormat;
+import com.example.erm.dto.PageSlice;
+import com.example.erm.dto.TotalMode;
 import com.example.erm.entities.Employee;
 import com.example.erm.entities.EmployeeStatus;
 import com.example.erm.entities.User;
-import com.example.erm.exceptions.ResourceNotFoundException;
-import com.example.erm.repositories.UserRepository;
+import com.example.erm.services.EmployeeExportService;
+import com.example.erm.services.EmployeeImportService;
 import com.example.erm.services.EmployeeService;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/api/v1/employees")
 public class EmployeeController {
     private final EmployeeService employeeService;
+    private final EmployeeExportService employeeExportService;
+    private final EmployeeImportService employeeImportService;
     private final EmployeeMapper employeeMapper;
-    private final UserRepository userRepository;
     @Autowired
-    public EmployeeController(EmployeeService employeeService, EmployeeMapper employeeMapper, UserRepository userRepository) {
+    public EmployeeController(EmployeeService employeeService, EmployeeExportService employeeExportService,
+                              EmployeeImportService employeeImportService, EmployeeMapper employeeMapper) {
         this.employeeService = employeeService;
+        this.employeeExportService = employeeExportService;
+        this.employeeImportService = employeeImportService;
         this.employeeMapper = employeeMapper;
-        this.userRepository = userRepository;
     }
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
     @Operation(summary = "Create employee", description = "Create a new employee")
-    public ResponseEntity<Employee> createEmployee(
+    public ResponseEntity<EmployeeResponseDTO> createEmployee(
             @RequestBody @Valid EmployeeDTO employeeDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            @CurrentUser User currentUser) {
         Employee employee = employeeService.createEmployee(
                 employeeMapper.toEntity(employeeDTO),
                 currentUser
         );
         return ResponseEntity
                 .created(URI.create("/api/v1/employees/" + employee.getEmpId()))
-                .body(employee);
+                .body(employeeMapper.toResponseDTO(employee));
     }
 
     @GetMapping("/{id}")
@@ -74,6 +94,10 @@ public class EmployeeController {
                             schema = @Schema(implementation = EmployeeResponseDTO.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Unchanged since the ETag sent in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Employee not found"
@@ -85,19 +109,79 @@ public class EmployeeController {
     })
     public ResponseEntity<EmployeeResponseDTO> getEmployee(
             @PathVariable("id") Long employeeId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Employee employee = employeeService.getEmployee(employeeId, currentUser);
-        return ResponseEntity.ok(employeeMapper.toResponseDTO(employee));
+            @CurrentUser User currentUser,
+            WebRequest request) {
+        EmployeeResponseDTO employee = employeeService.getEmployee(employeeId, currentUser);
+        // A matching If-None-Match gets an empty 304, the body is never serialized
+        if (request.checkNotModified(employee.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(employee.etag()).body(employee);
+    }
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR', 'MANAGER')")
+    @Operation(
+            summary = "Suggest employees",
+            description = "Type-ahead suggestions for employee names starting with the given prefix"
+    )
+    public ResponseEntity<List<EmployeeSuggestionDTO>> suggestEmployees(
+            @RequestParam @NotBlank String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) Integer limit,
+            @CurrentUser User currentUser) {
+        return ResponseEntity.ok(employeeService.suggestEmployees(prefix, limit, currentUser));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR', 'MANAGER')")
+    @Operation(
+            summary = "Export employees",
+            description = "Streams every matching employee as NDJSON (default) or CSV, ordered by id"
+    )
+    public void exportEmployees(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) EmployeeStatus status,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @CurrentUser User currentUser,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setDepartmentId(departmentId);
+        criteria.setStatus(status);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"employees." + exportFormat.getExtension() + "\"");
+        employeeExportService.exportEmployees(criteria, exportFormat, currentUser, response.getWriter());
     }
+
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @Operation(
+            summary = "Import employees",
+            description = "Bulk create from an NDJSON (default) or CSV body. The response is NDJSON: " +
+                    "an error line per rejected row, a progress line per committed chunk and a final summary"
+    )
+    public void importEmployees(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @CurrentUser User currentUser,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ExportFormat importFormat = ExportFormat.from(format);
+
+        response.setContentType(ExportFormat.NDJSON.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        employeeImportService.importEmployees(importFormat, request.getReader(), currentUser, response.getWriter());
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR', 'MANAGER')")
     @Operation(
             summary = "Search employees",
-            description = "Search and filter employees by various criteria with pagination"
+            description = "Search and filter employees by various criteria with pagination. " +
+                    "withTotal=false skips the count, withTotal=estimate returns a cached estimate"
     )
-    public ResponseEntity<Page<EmployeeResponseDTO>> searchEmployees(
+    public ResponseEntity<PageSlice<EmployeeResponseDTO>> searchEmployees(
             @RequestParam(required = false) Long employeeId,
             @RequestParam(required = false) String searchTerm,
             @RequestParam(required = false) Long departmentId,
@@ -111,7 +195,8 @@ public class EmployeeController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(defaultValue = "empId") String sortBy,
             @RequestParam(defaultValue = "ASC") String sortDirection,
-            @AuthenticationPrincipal User currentUser
+            @RequestParam(defaultValue = "exact") String withTotal,
+            @CurrentUser User currentUser
     ) {
         EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
         criteria.setEmployeeId(employeeId);
@@ -125,10 +210,47 @@ public class EmployeeController {
         criteria.setSize(size);
         criteria.setSortBy(sortBy);
         criteria.setSortDirection(sortDirection);
+        criteria.setWithTotal(TotalMode.from(withTotal));
 
-        Page<Employee> employees = employeeService.searchEmployees(criteria, currentUser);
+        return ResponseEntity.ok(employeeService.searchEmployees(criteria, currentUser));
+    }
 
-        return ResponseEntity.ok(employees.map(employeeMapper::toResponseDTO));
+    @GetMapping(value = "/search", params = "pagination=keyset")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR', 'MANAGER')")
+    @Operation(
+            summary = "Search employees with keyset pagination",
+            description = "Same filters as search, but pages with an opaque 'after' cursor instead of page numbers"
+    )
+    public ResponseEntity<CursorSlice<EmployeeResponseDTO>> searchEmployeesKeyset(
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String jobTitle,
+            @RequestParam(required = false) EmployeeStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate hireDateStart,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate hireDateEnd,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "empId") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @CurrentUser User currentUser
+    ) {
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setEmployeeId(employeeId);
+        criteria.setSearchTerm(searchTerm);
+        criteria.setDepartmentId(departmentId);
+        criteria.setJobTitle(jobTitle);
+        criteria.setStatus(status);
+        criteria.setHireDateStart(hireDateStart);
+        criteria.setHireDateEnd(hireDateEnd);
+        criteria.setAfter(after);
+        criteria.setSize(size);
+        criteria.setSortBy(sortBy);
+        criteria.setSortDirection(sortDirection);
+
+        return ResponseEntity.ok(employeeService.searchEmployeesAfter(criteria, currentUser));
     }
 
     // update employee
@@ -141,17 +263,57 @@ public class EmployeeController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Employee successfully updated"),
             @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "409", description = "Modified concurrently by another request"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag"),
             @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions"),
             @ApiResponse(responseCode = "400", description = "Invalid employee ID supplied")
     })
-    public ResponseEntity<Employee> updateEmployee(
+    public ResponseEntity<EmployeeResponseDTO> updateEmployee(
             @PathVariable("id") @Parameter(description = "Employee ID", required = true) Long employeeId,
             @RequestBody @Valid EmployeeDTO employeeDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Employee updatedEmployee = employeeService.updateEmployee(employeeId, employeeMapper.toEntity(employeeDTO), currentUser);
-        return ResponseEntity.ok(updatedEmployee);
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @CurrentUser User currentUser) {
+        Employee updatedEmployee = employeeService.updateEmployee(employeeId, employeeMapper.toEntity(employeeDTO),
+                currentUser, ifMatch);
+        EmployeeResponseDTO response = employeeMapper.toResponseDTO(updatedEmployee);
+        return ResponseEntity.ok().eTag(response.etag()).body(response);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @Operation(
+            summary = "Partially update employee",
+            description = "JSON Merge Patch: only the fields present are validated and written, null clears a field"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employee successfully updated"),
+            @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "409", description = "Modified concurrently by another request"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag"),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions"),
+            @ApiResponse(responseCode = "400", description = "Invalid or unknown fields in the patch")
+    })
+    public ResponseEntity<EmployeeResponseDTO> patchEmployee(
+            @PathVariable("id") @Parameter(description = "Employee ID", required = true) Long employeeId,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @CurrentUser User currentUser) {
+        Employee patchedEmployee = employeeService.patchEmployee(employeeId, patch, currentUser, ifMatch);
+        EmployeeResponseDTO response = employeeMapper.toResponseDTO(patchedEmployee);
+        return ResponseEntity.ok().eTag(response.etag()).body(response);
+    }
+
+    @PatchMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @Operation(
+            summary = "Batch update employees",
+            description = "Applies a list of partial changes in one transaction. Fields left out of an item keep " +
+                    "their value; the response has one result per item, in request order, with errors for rejected ones"
+    )
+    public ResponseEntity<List<EmployeeBatchResult>> updateEmployees(
+            @RequestBody List<EmployeeChangeDTO> changes,
+            @CurrentUser User currentUser) {
+        return ResponseEntity.ok(employeeService.updateEmployees(changes, currentUser));
     }
 
     @DeleteMapping("/{id}")
@@ -163,15 +325,16 @@ public class EmployeeController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Employee successfully deleted"),
             @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "409", description = "Modified concurrently by another request"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag"),
             @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions"),
             @ApiResponse(responseCode = "400", description = "Invalid employee ID supplied")
     })
     public ResponseEntity<Void> deleteEmployee(
             @PathVariable("id") @Parameter(description = "Employee ID", required = true) Long employeeId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        employeeService.deleteEmployee(employeeId, currentUser);
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @CurrentUser User currentUser) {
+        employeeService.deleteEmployee(employeeId, currentUser, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
@@ -180,16 +343,18 @@ public class EmployeeController {
     @PreAuthorize("hasAnyRole('ADMIN', 'HR', 'MANAGER')")
     @Operation(
             summary = "Get all employees",
-            description = "Retrieve all employees with pagination"
+            description = "Retrieve all employees with pagination. " +
+                    "withTotal=false skips the count, withTotal=estimate returns a cached estimate"
     )
-    public ResponseEntity<Page<EmployeeResponseDTO>> getAllEmployees(
+    public ResponseEntity<PageSlice<EmployeeResponseDTO>> getAllEmployees(
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(defaultValue = "empId") String sortBy,
             @RequestParam(defaultValue = "ASC") String sortDirection,
-            @AuthenticationPrincipal User currentUser
+            @RequestParam(defaultValue = "exact") String withTotal,
+            @CurrentUser User currentUser
     ) {
-        Page<Employee> employees = employeeService.getAllEmployees(page, size, sortBy, sortDirection, currentUser);
-        return ResponseEntity.ok(employees.map(employeeMapper::toResponseDTO));
+        return ResponseEntity.ok(employeeService.getAllEmployees(
+                page, size, sortBy, sortDirection, TotalMode.from(withTotal), currentUser));
     }
 }
\ No newline at end of file
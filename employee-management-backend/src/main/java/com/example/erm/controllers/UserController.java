@@ -1,9 +1,9 @@
 package com.example.erm.controllers;
 
+import com.example.erm.config.AccessTokens;
+import com.example.erm.config.CurrentUser;
 import com.example.erm.dto.*;
 import com.example.erm.entities.User;
-import com.example.erm.exceptions.ResourceNotFoundException;
-import com.example.erm.repositories.UserRepository;
 import com.example.erm.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,8 +11,6 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -26,14 +24,12 @@ import java.util.stream.Collectors;
 public class UserController {
     private final UserService userService;
     private final UserMapper userMapper;
-    private final UserRepository userRepository;
+    private final AccessTokens accessTokens;
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Create user", description = "Create a new user")
     public ResponseEntity<UserResponseDTO> createUser(@RequestBody @Valid UserCreateDTO userDTO,
-                                                                  @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+                                                                  @CurrentUser User currentUser) {
         User user = userMapper.toEntity(userDTO);
         User createdUser = userService.createUser(user);
         return ResponseEntity
@@ -47,10 +43,7 @@ public class UserController {
     public ResponseEntity<UserResponseDTO> updateUser(
             @PathVariable Long id,
             @RequestBody @Valid UserUpdateDTO userDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-
+            @CurrentUser User currentUser) {
         User user = userMapper.toEntity(userDTO);
         User updatedUser = userService.updateUser(id, user);
         return ResponseEntity.ok(userMapper.toResponseDTO(updatedUser));
@@ -59,10 +52,7 @@ public class UserController {
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get user", description = "Get user by ID")
-    public ResponseEntity<UserResponseDTO> getUser(@PathVariable Long id,@AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-
+    public ResponseEntity<UserResponseDTO> getUser(@PathVariable Long id,@CurrentUser User currentUser) {
         User user = userService.getUserById(id);
         return ResponseEntity.ok(userMapper.toResponseDTO(user));
     }
@@ -71,11 +61,7 @@ public class UserController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete user", description = "Delete a user")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id,@AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id,@CurrentUser User currentUser) {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
@@ -83,20 +69,23 @@ public class UserController {
 
     //login user
     @PostMapping("/login")
-    @Operation(summary = "Login user", description = "Login a user")
-    public ResponseEntity<UserResponseDTO> loginUser(@RequestBody @Valid UserDTO userDTO) {
+    @Operation(summary = "Login user",
+            description = "Login a user; the returned accessToken is sent as 'Authorization: Bearer <token>'")
+    public ResponseEntity<LoginResponseDTO> loginUser(@RequestBody @Valid UserDTO userDTO) {
         User user = userMapper.toEntity(userDTO);
         User loginUser = userService.loginUser(user);
-        return ResponseEntity.ok(userMapper.toResponseDTO(loginUser));
+        LoginResponseDTO response = new LoginResponseDTO();
+        response.setUser(userMapper.toResponseDTO(loginUser));
+        response.setAccessToken(accessTokens.issue(loginUser));
+        response.setExpiresIn(accessTokens.ttl().toSeconds());
+        return ResponseEntity.ok(response);
     }
 
     //get all users
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all users", description = "Get all users")
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers(@AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public ResponseEntity<List<UserResponseDTO>> getAllUsers(@CurrentUser User currentUser) {
         List<User> users = userService.getAllUsers();
         return ResponseEntity.ok(users.stream().map(userMapper::toResponseDTO).collect(Collectors.toList()));
     }
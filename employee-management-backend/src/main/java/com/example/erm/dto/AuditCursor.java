@@ -0,0 +1,43 @@
+package com.example.erm.dto;
+
+import com.example.erm.exceptions.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+// Position in (changed_at, audit_id) order, the key of every audit index
+@Data
+@AllArgsConstructor
+public class AuditCursor {
+    private static final String SEPARATOR = "\u001F";
+
+    private String sortDirection;
+    private LocalDateTime lastChangedAt;
+    private Long lastAuditId;
+
+    public static AuditCursor of(AuditTrailDTO audit, String sortDirection) {
+        return new AuditCursor(sortDirection, audit.getPerformedAt(), audit.getAuditId());
+    }
+
+    public static AuditCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new AuditCursor(parts[0], LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor", Map.of("after", "Cursor is malformed or expired"));
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortDirection, lastChangedAt.toString(), String.valueOf(lastAuditId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.erm.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuditSearchCriteria {
+    private String tableName;
+    private Long recordId;
+    // User id of the author
+    private Long changedBy;
+    private String action;
+    // Inclusive lower and exclusive upper bound on changedAt
+    private LocalDateTime changedFrom;
+    private LocalDateTime changedTo;
+    private Integer size;
+    private String sortDirection;
+    // Keyset pagination token from the previous slice
+    private String after;
+}
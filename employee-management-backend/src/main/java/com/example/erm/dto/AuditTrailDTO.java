@@ -1,12 +1,16 @@
 package com.example.erm.dto;
 
+import com.example.erm.entities.AuditFormat;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 @Builder
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class AuditTrailDTO {
     private Long auditId;
     private String tableName;
@@ -14,7 +18,26 @@ public class AuditTrailDTO {
     private String action;
     private String changes;
     private String performedBy;
+    private Long performedById;
     private LocalDateTime performedAt;
     private String oldValues;
     private String newValues;
-}
\ No newline at end of file
+    // Whether oldValues/newValues hold only the changed fields or the whole record
+    private AuditFormat format;
+
+    // Used by the criteria constructor projection in AuditRepositoryImpl and by AuditSegment
+    public AuditTrailDTO(Long auditId, String tableName, Long recordId, String action, String performedBy,
+                         Long performedById, LocalDateTime performedAt, String oldValues, String newValues,
+                         AuditFormat format) {
+        this.auditId = auditId;
+        this.tableName = tableName;
+        this.recordId = recordId;
+        this.action = action;
+        this.performedBy = performedBy;
+        this.performedById = performedById;
+        this.performedAt = performedAt;
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+        this.format = format;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.erm.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// One audited change with the full record state on either side, rebuilt from snapshot or delta rows
+@Data
+public class AuditVersionDTO {
+    private Long auditId;
+    private String action;
+    private LocalDateTime changedAt;
+    private String changedBy;
+    private List<String> changedFields;
+    // Null before a create and after a hard delete
+    private Map<String, Object> before;
+    private Map<String, Object> after;
+}
@@ -0,0 +1,25 @@
+package com.example.erm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSlice<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // Opaque token to pass back as "after" for the next slice, null on the last one
+    private String nextCursor;
+
+    public <R> CursorSlice<R> map(Function<? super T, ? extends R> converter) {
+        List<R> mapped = content.stream().map(converter).collect(Collectors.toList());
+        return new CursorSlice<>(mapped, size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.erm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// Outcome of one batch update item; results come back in request order, index is the item's position
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeBatchResult {
+    public static final String UPDATED = "updated";
+    public static final String REJECTED = "rejected";
+
+    private int index;
+    private Long empId;
+    private String status;
+    private Map<String, String> errors;
+
+    public static EmployeeBatchResult updated(int index, Long empId) {
+        EmployeeBatchResult result = new EmployeeBatchResult();
+        result.setIndex(index);
+        result.setEmpId(empId);
+        result.setStatus(UPDATED);
+        return result;
+    }
+
+    public static EmployeeBatchResult rejected(int index, Long empId, Map<String, String> errors) {
+        EmployeeBatchResult result = new EmployeeBatchResult();
+        result.setIndex(index);
+        result.setEmpId(empId);
+        result.setStatus(REJECTED);
+        result.setErrors(errors);
+        return result;
+    }
+}
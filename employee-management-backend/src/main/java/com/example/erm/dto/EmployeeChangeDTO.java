@@ -0,0 +1,42 @@
+package com.example.erm.dto;
+
+import com.example.erm.entities.EmployeeStatus;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// One item of a batch update: the target and the fields to change, fields left null keep their current value
+@Data
+public class EmployeeChangeDTO {
+    private static final String NOT_BLANK = ".*\\S.*";
+
+    @NotNull(message = "Employee id is required")
+    private Long empId;
+
+    @Pattern(regexp = NOT_BLANK, message = "First name must not be blank")
+    private String firstName;
+
+    @Pattern(regexp = NOT_BLANK, message = "Last name must not be blank")
+    private String lastName;
+
+    @Email(message = "Invalid email format")
+    @Pattern(regexp = NOT_BLANK, message = "Email must not be blank")
+    private String email;
+
+    @Pattern(regexp = NOT_BLANK, message = "Job title must not be blank")
+    private String jobTitle;
+
+    @DecimalMin(value = "0", message = "Salary must not be negative")
+    private BigDecimal salary;
+
+    private Long departmentId;
+    private Long managerId;
+    private EmployeeStatus status;
+
+    // Optional, the version the change was based on; the item is rejected if the employee moved past it
+    private Long version;
+}
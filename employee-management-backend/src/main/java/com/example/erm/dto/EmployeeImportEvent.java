@@ -0,0 +1,49 @@
+package com.example.erm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// One line of the import response stream: a rejected row, a progress tick after each chunk, or the final summary
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeImportEvent {
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String SUMMARY = "summary";
+
+    private String type;
+    private Integer line;
+    private Map<String, String> errors;
+    private Long processed;
+    private Long imported;
+    private Long failed;
+
+    public static EmployeeImportEvent error(int line, Map<String, String> errors) {
+        EmployeeImportEvent event = new EmployeeImportEvent();
+        event.setType(ERROR);
+        event.setLine(line);
+        event.setErrors(errors);
+        return event;
+    }
+
+    public static EmployeeImportEvent progress(long processed, long imported, long failed) {
+        return counts(PROGRESS, processed, imported, failed);
+    }
+
+    public static EmployeeImportEvent summary(long processed, long imported, long failed) {
+        return counts(SUMMARY, processed, imported, failed);
+    }
+
+    private static EmployeeImportEvent counts(String type, long processed, long imported, long failed) {
+        EmployeeImportEvent event = new EmployeeImportEvent();
+        event.setType(type);
+        event.setProcessed(processed);
+        event.setImported(imported);
+        event.setFailed(failed);
+        return event;
+    }
+}
@@ -41,18 +41,13 @@ public class EmployeeMapper {
 
         // Set Department relationship
         if (dto.getDepartmentId() != null) {
-            Department department = departmentRepository.findById(dto.getDepartmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Department not found with id: " + dto.getDepartmentId()));
-            employee.setDepartment(department);
+            // Unloaded reference, existence is checked by EmployeeService.validateEmployeeData
+            employee.setDepartment(departmentRepository.getReferenceById(dto.getDepartmentId()));
         }
 
         // Set Manager relationship
         if (dto.getManagerId() != null) {
-            Employee manager = employeeRepository.findById(dto.getManagerId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Manager not found with id: " + dto.getManagerId()));
-            employee.setManager(manager);
+            employee.setManager(employeeRepository.getReferenceById(dto.getManagerId()));
         }
 
         return employee;
@@ -133,6 +128,14 @@ public class EmployeeMapper {
                     employee.getManager().getLastName());
         }
 
+        responseDTO.setVersion(employee.getVersion());
+        if (employee.getDepartment() != null) {
+            responseDTO.setDepartmentVersion(employee.getDepartment().getVersion());
+        }
+        if (employee.getManager() != null) {
+            responseDTO.setManagerVersion(employee.getManager().getVersion());
+        }
+
         // Map audit fields
         responseDTO.setCreatedAt(employee.getCreatedAt());
         responseDTO.setUpdatedAt(employee.getUpdatedAt());
@@ -1,12 +1,18 @@
 package com.example.erm.dto;
 
+import com.example.erm.entities.EmployeeStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
+@NoArgsConstructor
 public class EmployeeResponseDTO extends EmployeeDTO {
     private String departmentName;
     private String managerName;
@@ -14,4 +20,43 @@ public class EmployeeResponseDTO extends EmployeeDTO {
     private LocalDateTime updatedAt;
     private String createdBy;
     private String updatedBy;
-}
\ No newline at end of file
+    private Long version;
+    // Only feed the ETag, see EntityTags
+    @JsonIgnore
+    private Long departmentVersion;
+    @JsonIgnore
+    private Long managerVersion;
+
+    // Used by the JPQL/criteria constructor projections in EmployeeRepository
+    public EmployeeResponseDTO(Long empId, String firstName, String lastName, String email,
+                               LocalDate hireDate, String jobTitle, BigDecimal salary, EmployeeStatus status,
+                               Long departmentId, String departmentName,
+                               Long managerId, String managerFirstName, String managerLastName,
+                               LocalDateTime createdAt, LocalDateTime updatedAt,
+                               String createdBy, String updatedBy,
+                               Long version, Long departmentVersion, Long managerVersion) {
+        setEmpId(empId);
+        setFirstName(firstName);
+        setLastName(lastName);
+        setEmail(email);
+        setHireDate(hireDate);
+        setJobTitle(jobTitle);
+        setSalary(salary);
+        setStatus(status);
+        setDepartmentId(departmentId);
+        setManagerId(managerId);
+        this.departmentName = departmentName;
+        this.managerName = managerId != null ? managerFirstName + " " + managerLastName : null;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.createdBy = createdBy;
+        this.updatedBy = updatedBy;
+        this.version = version;
+        this.departmentVersion = departmentVersion;
+        this.managerVersion = managerVersion;
+    }
+
+    public String etag() {
+        return EntityTags.of(version, departmentVersion, managerVersion);
+    }
+}
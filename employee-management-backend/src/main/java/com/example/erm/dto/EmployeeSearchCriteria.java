@@ -18,4 +18,7 @@ public class EmployeeSearchCriteria {
     private Integer size;
     private String sortBy;
     private String sortDirection;
+    private TotalMode withTotal;
+    // Keyset pagination token, when set page is ignored
+    private String after;
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.erm.dto;
+
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.exceptions.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+public class EmployeeSearchCursor {
+    // Only non-nullable columns can be used for keyset pagination, otherwise rows with NULL keys get skipped
+    public static final Set<String> SORTABLE_FIELDS = Set.of(
+            "empId", "firstName", "lastName", "email", "hireDate", "jobTitle", "status");
+
+    private static final String SEPARATOR = "\u001F";
+
+    private String sortBy;
+    private String sortDirection;
+    private String lastValue;
+    private Long lastEmpId;
+
+    public static EmployeeSearchCursor of(EmployeeDTO employee, String sortBy, String sortDirection) {
+        return new EmployeeSearchCursor(sortBy, sortDirection, sortValue(employee, sortBy), employee.getEmpId());
+    }
+
+    public static EmployeeSearchCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != 4 || !SORTABLE_FIELDS.contains(parts[0])) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            // Parse the key now so a tampered value is rejected here rather than when the query is built
+            parseValue(parts[0], parts[2]);
+            return new EmployeeSearchCursor(parts[0], parts[1], parts[2], Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ValidationException("Invalid cursor", Map.of("after", "Cursor is malformed or expired"));
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, sortDirection, lastValue, String.valueOf(lastEmpId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Converts the stored key back into the Java type of the sort attribute
+    public Comparable<?> typedLastValue() {
+        return parseValue(sortBy, lastValue);
+    }
+
+    private static Comparable<?> parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "empId" -> Long.valueOf(value);
+            case "hireDate" -> LocalDate.parse(value);
+            case "status" -> EmployeeStatus.valueOf(value);
+            default -> value;
+        };
+    }
+
+    private static String sortValue(EmployeeDTO employee, String sortBy) {
+        return switch (sortBy) {
+            case "empId" -> String.valueOf(employee.getEmpId());
+            case "firstName" -> employee.getFirstName();
+            case "lastName" -> employee.getLastName();
+            case "email" -> employee.getEmail();
+            case "hireDate" -> employee.getHireDate().toString();
+            case "jobTitle" -> employee.getJobTitle();
+            case "status" -> employee.getStatus().name();
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        };
+    }
+}
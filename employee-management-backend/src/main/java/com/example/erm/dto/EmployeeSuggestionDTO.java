@@ -0,0 +1,14 @@
+package com.example.erm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSuggestionDTO {
+    private Long empId;
+    private String fullName;
+    private Long departmentId;
+}
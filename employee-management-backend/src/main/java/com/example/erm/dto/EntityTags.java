@@ -0,0 +1,38 @@
+package com.example.erm.dto;
+
+import com.example.erm.entities.Employee;
+
+// Strong ETags built from entity versions. An employee's covers its department and manager too, since
+// the response shows their names: "4.1.0" is employee version 4, department version 1, manager version 0
+public final class EntityTags {
+    private EntityTags() {
+    }
+
+    public static String of(Long... versions) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                tag.append('.');
+            }
+            tag.append(versions[i] != null ? versions[i] : 0);
+        }
+        return tag.append('"').toString();
+    }
+
+    public static String of(Employee employee) {
+        return of(employee.getVersion(),
+                employee.getDepartment() != null ? employee.getDepartment().getVersion() : null,
+                employee.getManager() != null ? employee.getManager().getVersion() : null);
+    }
+
+    // If-Match uses the strong comparison: "*" or one of a comma-separated list of tags, weak ones never match
+    public static boolean matches(String ifMatch, String tag) {
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.erm.dto;
+
+import com.example.erm.exceptions.ValidationException;
+
+import java.util.Locale;
+import java.util.Map;
+
+// Wire formats of the employee export and import, one record per line in both cases
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid export format",
+                    Map.of("format", "Must be one of ndjson, csv"));
+        }
+    }
+}
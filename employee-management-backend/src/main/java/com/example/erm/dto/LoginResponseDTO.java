@@ -0,0 +1,14 @@
+package com.example.erm.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Data;
+
+// The user fields as before, plus a bearer token to send instead of Basic credentials
+@Data
+public class LoginResponseDTO {
+    @JsonUnwrapped
+    private UserResponseDTO user;
+    private String accessToken;
+    private String tokenType = "Bearer";
+    private long expiresIn;
+}
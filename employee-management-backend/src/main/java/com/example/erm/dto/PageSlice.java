@@ -0,0 +1,49 @@
+package com.example.erm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageSlice<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private int numberOfElements;
+    private boolean first;
+    private boolean last;
+    private boolean hasNext;
+    private boolean empty;
+    // Null when withTotal=false
+    private Long totalElements;
+    private Integer totalPages;
+    private boolean totalEstimated;
+
+    public static <T> PageSlice<T> of(Page<T> page) {
+        return of(page, page.getTotalElements(), false);
+    }
+
+    public static <T> PageSlice<T> of(Slice<T> slice, Long totalElements, boolean totalEstimated) {
+        Integer totalPages = null;
+        if (totalElements != null) {
+            totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / slice.getSize());
+        }
+        return new PageSlice<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.getNumberOfElements(),
+                slice.isFirst(), slice.isLast(), slice.hasNext(), slice.isEmpty(),
+                totalElements, totalPages, totalEstimated);
+    }
+
+    public <R> PageSlice<R> map(Function<? super T, ? extends R> converter) {
+        List<R> mapped = content.stream().map(converter).collect(Collectors.toList());
+        return new PageSlice<>(mapped, number, size, numberOfElements, first, last, hasNext, empty,
+                totalElements, totalPages, totalEstimated);
+    }
+}
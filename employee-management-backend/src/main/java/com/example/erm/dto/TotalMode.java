@@ -0,0 +1,25 @@
+package com.example.erm.dto;
+
+import com.example.erm.exceptions.ValidationException;
+
+import java.util.Locale;
+import java.util.Map;
+
+// How a paged response reports its total: not at all, from cached statistics, or with a COUNT query
+public enum TotalMode {
+    FALSE,
+    ESTIMATE,
+    EXACT;
+
+    public static TotalMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid withTotal value",
+                    Map.of("withTotal", "Must be one of false, estimate, exact"));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.erm.entities;
+
+// How old_values/new_values of an audit row are to be read
+public enum AuditFormat {
+    // Full JSON of the entity before and after the change
+    SNAPSHOT,
+    // Only the changed properties, old values in old_values and new values in new_values
+    DELTA
+}
@@ -6,11 +6,16 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "audit_trail")
+@Table(name = "audit_trail", indexes = {
+        // Composite keys ending in the keyset order (changed_at, audit_id), one per selective audit filter
+        @Index(name = "idx_audit_changed_at_id", columnList = "changed_at, audit_id"),
+        @Index(name = "idx_audit_record_changed_at", columnList = "table_name, record_id, changed_at, audit_id"),
+        @Index(name = "idx_audit_changed_by_changed_at", columnList = "changed_by, changed_at, audit_id")
+})
 public class AuditTrail {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_id_seq")
-    @SequenceGenerator(name = "audit_id_seq", sequenceName = "audit_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "audit_id_seq", sequenceName = "audit_id_seq", allocationSize = SequenceIds.ALLOCATION_SIZE)
     private Long auditId;
 
     @Column(name = "table_name", nullable = false)
@@ -30,10 +35,16 @@ public class AuditTrail {
     @Lob
     private String newValues;
 
+    // Null on rows written before delta auditing, which are snapshots
+    @Enumerated(EnumType.STRING)
+    @Column(name = "value_format", length = 16)
+    private AuditFormat format;
+
     @ManyToOne
     @JoinColumn(name = "changed_by")
     private User changedBy;
 
-    @Column(name = "changed_at")
+    // Keyset column, so never null
+    @Column(name = "changed_at", nullable = false)
     private LocalDateTime changedAt = LocalDateTime.now();
 }
\ No newline at end of file
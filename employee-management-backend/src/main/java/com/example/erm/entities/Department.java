@@ -1,20 +1,26 @@
 package com.example.erm.entities;
 
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "deptId")
 @Table(name = "departments")
 public class Department {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dept_id_seq")
-    @SequenceGenerator(name = "dept_id_seq", sequenceName = "dept_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "dept_id_seq", sequenceName = "dept_id_seq", allocationSize = SequenceIds.ALLOCATION_SIZE)
     private Long deptId;
 
     @NotBlank
@@ -24,6 +30,12 @@ public class Department {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Renaming a department changes the ETag of every employee response that shows the name
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "department")
     @JsonIgnore
     private List<Employee> employees = new ArrayList<>();
@@ -1,21 +1,52 @@
 package com.example.erm.entities;
 
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "employees")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "empId")
+// Fetch plans per use case, associations are LAZY unless a plan asks for them
+@NamedEntityGraph(name = Employee.GRAPH_LIST, attributeNodes = {
+        @NamedAttributeNode("department")
+})
+@NamedEntityGraph(name = Employee.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("department"),
+        @NamedAttributeNode("manager"),
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("updatedBy")
+})
+@NamedEntityGraph(name = Employee.GRAPH_AUDIT_SNAPSHOT, attributeNodes = {
+        @NamedAttributeNode("department"),
+        @NamedAttributeNode("manager")
+})
+@Table(name = "employees", indexes = {
+        // Composite keys matching the keyset ORDER BY (sort column, emp_id)
+        @Index(name = "idx_employees_last_name_id", columnList = "last_name, emp_id"),
+        @Index(name = "idx_employees_hire_date_id", columnList = "hire_date, emp_id"),
+        @Index(name = "idx_employees_dept_id", columnList = "dept_id"),
+        @Index(name = "idx_employees_status", columnList = "status")
+})
 public class Employee {
+    public static final String GRAPH_LIST = "Employee.list";
+    public static final String GRAPH_DETAIL = "Employee.detail";
+    public static final String GRAPH_AUDIT_SNAPSHOT = "Employee.auditSnapshot";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emp_id_seq")
-    @SequenceGenerator(name = "emp_id_seq", sequenceName = "emp_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "emp_id_seq", sequenceName = "emp_id_seq", allocationSize = SequenceIds.ALLOCATION_SIZE)
     private Long empId;
 
     @NotBlank
@@ -39,12 +70,15 @@ public class Employee {
     @Column(nullable = false)
     private String jobTitle;
 
-    @ManyToOne
+    // Referenced entities serialize as their id, so snapshots never walk the manager chain
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dept_id")
+    @JsonIdentityReference(alwaysAsId = true)
     private Department department;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
+    @JsonIdentityReference(alwaysAsId = true)
     private Employee manager;
 
     @Column(precision = 10, scale = 2)
@@ -60,14 +94,22 @@ public class Employee {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
+    @JsonIdentityReference(alwaysAsId = true)
     private User createdBy;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "updated_by")
+    @JsonIdentityReference(alwaysAsId = true)
     private User updatedBy;
 
+    // Optimistic lock and the basis of the resource's ETag; rows that predate the column start at 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,12 @@
+package com.example.erm.entities;
+
+// Every id sequence hands out this many ids per nextval, so inserts cost one sequence round trip per block.
+// It must equal the sequences' INCREMENT BY (Hibernate refuses to start otherwise, see db/pooled-sequences.sql);
+// hibernate.id.optimizer.pooled.preferred decides whether nextval is the top (pooled) or bottom (pooled-lo)
+// of a block. Blocks never overlap between nodes because each one is claimed by its own nextval.
+public final class SequenceIds {
+    public static final int ALLOCATION_SIZE = 50;
+
+    private SequenceIds() {
+    }
+}
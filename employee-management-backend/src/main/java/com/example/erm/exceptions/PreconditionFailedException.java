@@ -0,0 +1,7 @@
+package com.example.erm.exceptions;
+
+public class PreconditionFailedException extends BaseException {
+    public PreconditionFailedException(String message) {
+        super(message, "PRECONDITION_FAILED");
+    }
+}
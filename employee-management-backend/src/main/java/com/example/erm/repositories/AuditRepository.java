@@ -3,15 +3,18 @@ package com.example.erm.repositories;
 import com.example.erm.entities.AuditTrail;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.Collection;
 
 @Repository
-public interface AuditRepository extends JpaRepository<AuditTrail, Long> {
-    List<AuditTrail> findByTableNameAndRecordId(String tableName, Long recordId);
-    List<AuditTrail> findByChangedBy_UserId(Long userId);
-
-    List<AuditTrail> findByTableName(String tableName);
+public interface AuditRepository extends JpaRepository<AuditTrail, Long>, AuditRepositoryCustom {
+    // Removes exactly the given rows, the ones an archive segment holds
+    @Modifying
+    @Query("delete from AuditTrail a where a.auditId in :auditIds")
+    int deleteByAuditIds(@Param("auditIds") Collection<Long> auditIds);
 }
@@ -0,0 +1,12 @@
+package com.example.erm.repositories;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+
+import java.util.List;
+
+public interface AuditRepositoryCustom {
+    // Seek query over the filtered rows strictly after the cursor in (changedAt, auditId) order, no OFFSET and no COUNT
+    List<AuditTrailDTO> searchAfter(AuditSearchCriteria criteria, AuditCursor after, boolean ascending, int limit);
+}
@@ -0,0 +1,77 @@
+package com.example.erm.repositories;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AuditRepositoryImpl implements AuditRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AuditTrailDTO> searchAfter(AuditSearchCriteria criteria, AuditCursor after, boolean ascending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AuditTrailDTO> query = cb.createQuery(AuditTrailDTO.class);
+        Root<AuditTrail> root = query.from(AuditTrail.class);
+        Join<AuditTrail, User> changedBy = root.join("changedBy", JoinType.LEFT);
+
+        query.select(cb.construct(AuditTrailDTO.class,
+                root.get("auditId"), root.get("tableName"), root.get("recordId"), root.get("action"),
+                changedBy.get("username"), changedBy.get("userId"), root.get("changedAt"),
+                root.get("oldValues"), root.get("newValues"), root.get("format")));
+
+        Path<LocalDateTime> changedAt = root.get("changedAt");
+        Path<Long> auditId = root.get("auditId");
+
+        // Equality filters lead, so each one lines up with an index prefix ending in (changed_at, audit_id)
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getTableName() != null) {
+            predicates.add(cb.equal(root.get("tableName"), criteria.getTableName()));
+        }
+        if (criteria.getRecordId() != null) {
+            predicates.add(cb.equal(root.get("recordId"), criteria.getRecordId()));
+        }
+        if (criteria.getChangedBy() != null) {
+            // The foreign key column itself, no join needed
+            predicates.add(cb.equal(root.get("changedBy").get("userId"), criteria.getChangedBy()));
+        }
+        if (criteria.getAction() != null) {
+            predicates.add(cb.equal(root.get("action"), criteria.getAction()));
+        }
+        if (criteria.getChangedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(changedAt, criteria.getChangedFrom()));
+        }
+        if (criteria.getChangedTo() != null) {
+            predicates.add(cb.lessThan(changedAt, criteria.getChangedTo()));
+        }
+        if (after != null) {
+            Predicate beyondKey = ascending
+                    ? cb.greaterThan(changedAt, after.getLastChangedAt())
+                    : cb.lessThan(changedAt, after.getLastChangedAt());
+            Predicate beyondId = ascending
+                    ? cb.greaterThan(auditId, after.getLastAuditId())
+                    : cb.lessThan(auditId, after.getLastAuditId());
+            predicates.add(cb.or(beyondKey, cb.and(cb.equal(changedAt, after.getLastChangedAt()), beyondId)));
+        }
+
+        // auditId breaks ties between rows written in the same instant
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending
+                        ? List.of(cb.asc(changedAt), cb.asc(auditId))
+                        : List.of(cb.desc(changedAt), cb.desc(auditId)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
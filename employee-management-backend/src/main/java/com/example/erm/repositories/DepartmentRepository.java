@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,12 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     // Find by department name (case-insensitive)
     Optional<Department> findByDeptNameIgnoreCase(String deptName);
 
+    @Query("SELECT d.deptId FROM Department d")
+    List<Long> findAllIds();
+
+    @Query("SELECT d.deptId FROM Department d WHERE d.deptId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     // Check if department name exists
     boolean existsByDeptName(String deptName);
 
@@ -1,46 +1,69 @@
 package com.example.erm.repositories;
 
+import com.example.erm.dto.EmployeeResponseDTO;
 import com.example.erm.entities.Employee;
 import com.example.erm.entities.EmployeeStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-
-    @Query("SELECT e FROM Employee e WHERE " +
-            "(:employeeId IS NULL OR e.empId = :employeeId) AND " +
-            "(:searchTerm IS NULL OR " +
-            "   LOWER(e.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "   LOWER(e.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
-            "(:departmentId IS NULL OR e.department.deptId = :departmentId) AND " +
-            "(:jobTitle IS NULL OR LOWER(e.jobTitle) LIKE LOWER(CONCAT('%', :jobTitle, '%'))) AND " +
-            "(:status IS NULL OR e.status = :status) AND " +
-            "(:hireDateStart IS NULL OR e.hireDate >= :hireDateStart) AND " +
-            "(:hireDateEnd IS NULL OR e.hireDate <= :hireDateEnd)")
-    Page<Employee> searchEmployees(
-            @Param("employeeId") Long employeeId,
-            @Param("searchTerm") String searchTerm,
-            @Param("departmentId") Long departmentId,
-            @Param("jobTitle") String jobTitle,
-            @Param("status") EmployeeStatus status,
-            @Param("hireDateStart") LocalDate hireDateStart,
-            @Param("hireDateEnd") LocalDate hireDateEnd,
-            Pageable pageable
-    );
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeRepositoryCustom {
 
+    @Query("SELECT new com.example.erm.dto.EmployeeResponseDTO(" +
+            "e.empId, e.firstName, e.lastName, e.email, e.hireDate, e.jobTitle, e.salary, e.status, " +
+            "d.deptId, d.deptName, m.empId, m.firstName, m.lastName, " +
+            "e.createdAt, e.updatedAt, c.username, u.username, e.version, d.version, m.version) " +
+            "FROM Employee e " +
+            "LEFT JOIN e.department d " +
+            "LEFT JOIN e.manager m " +
+            "LEFT JOIN e.createdBy c " +
+            "LEFT JOIN e.updatedBy u " +
+            "WHERE e.empId = :empId")
+    Optional<EmployeeResponseDTO> findResponseById(@Param("empId") Long empId);
 
     boolean existsByEmail(String email);
 
+    // Set-based existence checks for bulk import, callers keep each collection under Oracle's 1000-element IN limit
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT e.empId FROM Employee e WHERE e.empId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(Employee.GRAPH_LIST)
     List<Employee> findByStatus(EmployeeStatus status);
 
+    @EntityGraph(Employee.GRAPH_LIST)
     List<Employee> findByDepartmentDeptId(Long departmentId);
+
+    // Loads the row an update works on together with everything its response needs
+    @EntityGraph(Employee.GRAPH_DETAIL)
+    Optional<Employee> findDetailByEmpId(Long empId);
+
+    // Loads the row a delete works on together with what its audit snapshot references
+    @EntityGraph(Employee.GRAPH_AUDIT_SNAPSHOT)
+    Optional<Employee> findAuditSnapshotByEmpId(Long empId);
+
+    // Scalar columns only, used to build the in-memory text index without loading associations
+    @Query("SELECT e.empId, e.firstName, e.lastName, e.jobTitle FROM Employee e")
+    List<Object[]> findAllSearchText();
+
+    @Query("SELECT e.empId, e.firstName, e.lastName, e.department.deptId, e.status FROM Employee e")
+    List<Object[]> findAllNameEntries();
+
+    // Cardinality statistics for estimated totals
+    @Query("SELECT e.department.deptId, e.status, COUNT(e) FROM Employee e GROUP BY e.department.deptId, e.status")
+    List<Object[]> countByDepartmentAndStatus();
+
+    @Query("SELECT YEAR(e.hireDate), COUNT(e) FROM Employee e GROUP BY YEAR(e.hireDate)")
+    List<Object[]> countByHireYear();
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.erm.repositories;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.EmployeeSearchCursor;
+import com.example.erm.entities.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Read paths return EmployeeResponseDTO projections built in a single statement, no entity graph is loaded
+public interface EmployeeRepositoryCustom {
+    // Seek query: rows strictly after the cursor in (sortBy, empId) order, no OFFSET and no COUNT
+    List<EmployeeResponseDTO> searchEmployeesAfter(Specification<Employee> filters, EmployeeSearchCursor after,
+                                                   String sortBy, boolean ascending, int limit);
+
+    // Offset page without the companion COUNT query, hasNext comes from fetching one extra row
+    Slice<EmployeeResponseDTO> findResponseSlice(Specification<Employee> filters, Pageable pageable);
+
+    Page<EmployeeResponseDTO> findResponsePage(Specification<Employee> filters, Pageable pageable);
+
+    // UPDATE of just the named attributes, set to the entity's current values, that also bumps the
+    // version and fails with an optimistic locking exception if the row moved past it. The entity is
+    // detached first so its full-row UPDATE is not flushed as well; @DynamicUpdate is not used because
+    // it turns off JDBC batching for every other update of the entity
+    int updateAttributes(Employee employee, Collection<String> attributes);
+
+    // Forward-only cursor over every matching row in empId order, the caller must close the stream
+    Stream<EmployeeResponseDTO> streamResponses(Specification<Employee> filters, int fetchSize);
+}
@@ -0,0 +1,185 @@
+package com.example.erm.repositories;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.EmployeeSearchCursor;
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EmployeeResponseDTO> searchEmployeesAfter(Specification<Employee> filters, EmployeeSearchCursor after,
+                                                          String sortBy, boolean ascending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeResponseDTO> query = cb.createQuery(EmployeeResponseDTO.class);
+        Root<Employee> root = query.from(Employee.class);
+        selectResponse(query, root, cb);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filterPredicate = filters.toPredicate(root, query, cb);
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+        if (after != null) {
+            predicates.add(seekPredicate(cb, root, after, sortBy, ascending));
+        }
+
+        Path<?> sortPath = root.get(sortBy);
+        Path<?> idPath = root.get("empId");
+        // empId breaks ties so the order is total and no row is returned twice across slices
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending
+                        ? List.of(cb.asc(sortPath), cb.asc(idPath))
+                        : List.of(cb.desc(sortPath), cb.desc(idPath)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int updateAttributes(Employee employee, Collection<String> attributes) {
+        entityManager.detach(employee);
+        BeanWrapper values = PropertyAccessorFactory.forBeanPropertyAccess(employee);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+        for (String attribute : attributes) {
+            update.set(root.get(attribute), values.getPropertyValue(attribute));
+        }
+        Long version = employee.getVersion();
+        update.set(root.<Long>get("version"), version + 1);
+        update.where(cb.equal(root.get("empId"), employee.getEmpId()), cb.equal(root.get("version"), version));
+
+        int updated = entityManager.createQuery(update).executeUpdate();
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, employee.getEmpId());
+        }
+        employee.setVersion(version + 1);
+        return updated;
+    }
+
+    @Override
+    public Slice<EmployeeResponseDTO> findResponseSlice(Specification<Employee> filters, Pageable pageable) {
+        List<EmployeeResponseDTO> rows = findResponses(filters, pageable, pageable.getPageSize() + 1);
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<EmployeeResponseDTO> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public Page<EmployeeResponseDTO> findResponsePage(Specification<Employee> filters, Pageable pageable) {
+        List<EmployeeResponseDTO> content = findResponses(filters, pageable, pageable.getPageSize());
+        // Skips the COUNT when the first or last page already tells the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(filters));
+    }
+
+    @Override
+    public Stream<EmployeeResponseDTO> streamResponses(Specification<Employee> filters, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeResponseDTO> query = cb.createQuery(EmployeeResponseDTO.class);
+        Root<Employee> root = query.from(Employee.class);
+        selectResponse(query, root, cb);
+
+        Predicate filterPredicate = filters.toPredicate(root, query, cb);
+        if (filterPredicate != null) {
+            query.where(filterPredicate);
+        }
+        query.orderBy(cb.asc(root.get("empId")));
+
+        // Hibernate backs getResultStream with a forward-only ScrollableResults, so rows arrive
+        // from the driver fetchSize at a time instead of being materialised into a list
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private List<EmployeeResponseDTO> findResponses(Specification<Employee> filters, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeResponseDTO> query = cb.createQuery(EmployeeResponseDTO.class);
+        Root<Employee> root = query.from(Employee.class);
+        selectResponse(query, root, cb);
+
+        Predicate filterPredicate = filters.toPredicate(root, query, cb);
+        if (filterPredicate != null) {
+            query.where(filterPredicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private long countMatching(Specification<Employee> filters) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+
+        Predicate filterPredicate = filters.toPredicate(root, query, cb);
+        query.select(cb.count(root));
+        if (filterPredicate != null) {
+            query.where(filterPredicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Same columns as EmployeeRepository.findResponseById: one statement, names joined in
+    private void selectResponse(CriteriaQuery<EmployeeResponseDTO> query, Root<Employee> root, CriteriaBuilder cb) {
+        Join<Employee, Department> department = root.join("department", JoinType.LEFT);
+        Join<Employee, Employee> manager = root.join("manager", JoinType.LEFT);
+        Join<Employee, User> createdBy = root.join("createdBy", JoinType.LEFT);
+        Join<Employee, User> updatedBy = root.join("updatedBy", JoinType.LEFT);
+
+        query.select(cb.construct(EmployeeResponseDTO.class,
+                root.get("empId"), root.get("firstName"), root.get("lastName"), root.get("email"),
+                root.get("hireDate"), root.get("jobTitle"), root.get("salary"), root.get("status"),
+                department.get("deptId"), department.get("deptName"),
+                manager.get("empId"), manager.get("firstName"), manager.get("lastName"),
+                root.get("createdAt"), root.get("updatedAt"),
+                createdBy.get("username"), updatedBy.get("username"),
+                root.get("version"), department.get("version"), manager.get("version")));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(CriteriaBuilder cb, Root<Employee> root, EmployeeSearchCursor after,
+                                    String sortBy, boolean ascending) {
+        Expression<Comparable> sortPath = root.get(sortBy);
+        Expression<Long> idPath = root.get("empId");
+        Comparable lastValue = after.typedLastValue();
+        Long lastId = after.getLastEmpId();
+
+        if ("empId".equals(sortBy)) {
+            return ascending ? cb.greaterThan(idPath, lastId) : cb.lessThan(idPath, lastId);
+        }
+        Predicate beyondKey = ascending ? cb.greaterThan(sortPath, lastValue) : cb.lessThan(sortPath, lastValue);
+        Predicate beyondId = ascending ? cb.greaterThan(idPath, lastId) : cb.lessThan(idPath, lastId);
+        return cb.or(beyondKey, cb.and(cb.equal(sortPath, lastValue), beyondId));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.erm.repositories;
+
+import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    // Every filter except the substring ones, which may be resolved by the in-memory text index instead.
+    // Only the filters present in the criteria become predicates, so each combination gets its own SQL and plan
+    public static Specification<Employee> attributeFilters(EmployeeSearchCriteria criteria) {
+        Specification<Employee> spec = Specification.where(null);
+        if (criteria.getEmployeeId() != null) {
+            spec = spec.and(hasEmployeeId(criteria.getEmployeeId()));
+        }
+        if (criteria.getDepartmentId() != null) {
+            spec = spec.and(inDepartment(criteria.getDepartmentId()));
+        }
+        if (criteria.getStatus() != null) {
+            spec = spec.and(hasStatus(criteria.getStatus()));
+        }
+        if (criteria.getHireDateStart() != null) {
+            spec = spec.and(hiredOnOrAfter(criteria.getHireDateStart()));
+        }
+        if (criteria.getHireDateEnd() != null) {
+            spec = spec.and(hiredOnOrBefore(criteria.getHireDateEnd()));
+        }
+        return spec;
+    }
+
+    public static Specification<Employee> hasEmployeeId(Long empId) {
+        return (root, query, cb) -> cb.equal(root.get("empId"), empId);
+    }
+
+    public static Specification<Employee> empIdIn(Collection<Long> empIds) {
+        return (root, query, cb) -> empIds.isEmpty() ? cb.disjunction() : root.get("empId").in(empIds);
+    }
+
+    public static Specification<Employee> nameContains(String searchTerm) {
+        String pattern = containsPattern(searchTerm);
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("firstName")), pattern),
+                cb.like(cb.lower(root.get("lastName")), pattern));
+    }
+
+    // Compares the FK column directly, no join to departments
+    public static Specification<Employee> inDepartment(Long deptId) {
+        return (root, query, cb) -> cb.equal(root.get("department").get("deptId"), deptId);
+    }
+
+    public static Specification<Employee> jobTitleContains(String jobTitle) {
+        String pattern = containsPattern(jobTitle);
+        return (root, query, cb) -> cb.like(cb.lower(root.get("jobTitle")), pattern);
+    }
+
+    public static Specification<Employee> hasStatus(EmployeeStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Employee> hiredOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("hireDate"), date);
+    }
+
+    public static Specification<Employee> hiredOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("hireDate"), date);
+    }
+
+    private static String containsPattern(String term) {
+        return "%" + term.toLowerCase() + "%";
+    }
+}
@@ -3,10 +3,13 @@ package com.example.erm.repositories;
 
 import com.example.erm.entities.User;
 import com.example.erm.entities.UserRole;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,7 +18,8 @@ import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    // Find by username
+    // Find by username, with the department used by the permission checks
+    @EntityGraph(User.GRAPH_WITH_DEPARTMENT)
     Optional<User> findByUsername(String username);
 
     // Check if username exists
@@ -49,4 +53,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Find users created between dates
     List<User> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    // Users whose BCrypt hash was made at a lower cost; "$2a$10$..." carries it zero-padded at positions 5-6,
+    // so the string comparison orders like the number
+    @Query("SELECT COUNT(u) FROM User u WHERE SUBSTRING(u.passwordHash, 5, 2) < :cost")
+    long countByPasswordCostBelow(@Param("cost") String cost);
+
+    // Swaps the hash only if it is still the one just verified, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash, u.version = u.version + 1 " +
+            "WHERE u.userId = :userId AND u.passwordHash = :oldHash")
+    int replacePasswordHash(@Param("userId") Long userId, @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import com.example.erm.exceptions.AccessDeniedException;
+import com.example.erm.repositories.EmployeeSpecifications;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Objects;
+
+// The rows a caller may read, compiled from their role and department. ADMIN and HR are unrestricted;
+// a MANAGER is confined to their own department, and a manager without one sees nothing. restrict() ANDs
+// the scope onto a query so restricted callers only ever scan their department's rows.
+public final class AccessScope {
+    private static final AccessScope UNRESTRICTED = new AccessScope(false, null);
+    private static final AccessScope NONE = new AccessScope(true, null);
+
+    private final boolean restricted;
+    private final Long departmentId;
+
+    private AccessScope(boolean restricted, Long departmentId) {
+        this.restricted = restricted;
+        this.departmentId = departmentId;
+    }
+
+    public static AccessScope of(User user) {
+        if (user.getRole() == UserRole.ADMIN || user.getRole() == UserRole.HR) {
+            return UNRESTRICTED;
+        }
+        Long deptId = user.getDepartment() != null ? user.getDepartment().getDeptId() : null;
+        return deptId != null ? new AccessScope(true, deptId) : NONE;
+    }
+
+    public boolean isRestricted() {
+        return restricted;
+    }
+
+    // The only department a restricted caller may read, null when unrestricted or when nothing is readable
+    public Long departmentId() {
+        return departmentId;
+    }
+
+    public boolean permits(Long deptId) {
+        return !restricted || (departmentId != null && departmentId.equals(deptId));
+    }
+
+    public void check(Long deptId) {
+        if (!permits(deptId)) {
+            throw new AccessDeniedException("Access denied. Managers can only access their department.");
+        }
+    }
+
+    public Specification<Employee> restrict(Specification<Employee> spec) {
+        if (!restricted) {
+            return spec;
+        }
+        return spec.and(departmentId != null
+                ? EmployeeSpecifications.inDepartment(departmentId)
+                : (root, query, cb) -> cb.disjunction());
+    }
+
+    // The criteria as the database will see them, for the paths that reason about criteria rather than
+    // predicates: count estimates and search cache invalidation
+    public EmployeeSearchCriteria narrow(EmployeeSearchCriteria criteria) {
+        if (departmentId == null || Objects.equals(criteria.getDepartmentId(), departmentId)) {
+            return criteria;
+        }
+        EmployeeSearchCriteria narrowed = new EmployeeSearchCriteria();
+        BeanUtils.copyProperties(criteria, narrowed);
+        narrowed.setDepartmentId(departmentId);
+        return narrowed;
+    }
+
+    // Callers with the same key see the same rows
+    public String key() {
+        if (!restricted) {
+            return "ALL";
+        }
+        return departmentId != null ? "DEPT:" + departmentId : "NONE";
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+}
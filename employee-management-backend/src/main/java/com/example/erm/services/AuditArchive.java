@@ -0,0 +1,104 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Archived audit rows: the segment files in erm.audit.archive.directory, opened once and memory-mapped.
+// Segments are numbered in key order and each one starts strictly after the previous one ends.
+@Component
+public class AuditArchive {
+    private static final Logger log = LoggerFactory.getLogger(AuditArchive.class);
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private volatile List<AuditSegment> segments = List.of();
+    private int nextNumber = 1;
+
+    @Autowired
+    public AuditArchive(@Value("${erm.audit.archive.directory:audit-archive}") String directory,
+                        MeterRegistry meterRegistry) {
+        this.directory = Path.of(directory);
+        Gauge.builder("erm.audit.archive.segments", this, archive -> archive.segments.size()).register(meterRegistry);
+    }
+
+    @PostConstruct
+    synchronized void open() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.sorted().toList();
+        }
+        List<AuditSegment> opened = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(SUFFIX + ".tmp")) {
+                // Left behind by a run that died before the segment was complete
+                Files.delete(file);
+            } else if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                opened.add(AuditSegment.open(file));
+                nextNumber = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())) + 1;
+            }
+        }
+        segments = List.copyOf(opened);
+        log.info("Opened {} audit archive segments in {}", opened.size(), directory.toAbsolutePath());
+    }
+
+    // Key of the newest archived row, null while nothing is archived
+    public AuditCursor watermark() {
+        List<AuditSegment> current = segments;
+        return current.isEmpty() ? null : current.get(current.size() - 1).last();
+    }
+
+    // Ids held by the newest segment, empty while nothing is archived
+    List<Long> lastSegmentIds() {
+        List<AuditSegment> current = segments;
+        return current.isEmpty() ? List.of() : current.get(current.size() - 1).auditIds();
+    }
+
+    public List<AuditTrailDTO> find(AuditSearchCriteria criteria, AuditCursor after, boolean ascending, int limit) {
+        List<AuditSegment> current = segments;
+        List<AuditTrailDTO> found = new ArrayList<>();
+        for (int i = 0; i < current.size() && found.size() < limit; i++) {
+            AuditSegment segment = current.get(ascending ? i : current.size() - 1 - i);
+            if (segment.overlaps(criteria, after, ascending)) {
+                found.addAll(segment.find(criteria, after, ascending, limit - found.size()));
+            }
+        }
+        return found;
+    }
+
+    // Writes rows (in key order, all after the watermark) as the next segment; it is readable once this returns
+    synchronized void append(List<AuditTrailDTO> rows) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(String.format("%s%08d%s", PREFIX, nextNumber, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        AuditSegment.write(temp, rows);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        target.toFile().setReadOnly();
+        nextNumber++;
+
+        List<AuditSegment> updated = new ArrayList<>(segments);
+        updated.add(AuditSegment.open(target));
+        segments = List.copyOf(updated);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.repositories.AuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Moves audit rows older than max-age out of audit_trail into archive segments, oldest first. A segment is
+// on disk before exactly its rows are deleted; if a run dies in between, the next one deletes the ids of the
+// newest segment before going on. changedAt is set when a row is built, not when it commits, so a long
+// transaction, the async queue or a journal replay can commit a row keyed behind the watermark after that
+// segment was cut. Such a row is never deleted unarchived: it stays in audit_trail, where queries still
+// merge it in.
+@Component
+public class AuditArchiver {
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiver.class);
+    private static final int DELETE_CHUNK = 1000;
+
+    private final AuditRepository auditRepository;
+    private final AuditArchive auditArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final int segmentRows;
+    private final Counter archived;
+
+    @Autowired
+    public AuditArchiver(AuditRepository auditRepository,
+                         AuditArchive auditArchive,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${erm.audit.archive.enabled:false}") boolean enabled,
+                         @Value("${erm.audit.archive.max-age:365d}") Duration maxAge,
+                         @Value("${erm.audit.archive.segment-rows:10000}") int segmentRows) {
+        this.auditRepository = auditRepository;
+        this.auditArchive = auditArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.segmentRows = segmentRows;
+        this.archived = Counter.builder("erm.audit.archived").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${erm.audit.archive.interval-ms:3600000}",
+            initialDelayString = "${erm.audit.archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive(LocalDateTime.now().minus(maxAge));
+        }
+    }
+
+    // Archives every row changed before cutoff and returns how many were moved
+    public synchronized long archive(LocalDateTime cutoff) {
+        delete(auditArchive.lastSegmentIds());
+        AuditCursor watermark = auditArchive.watermark();
+
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setChangedTo(cutoff);
+        long moved = 0;
+        List<AuditTrailDTO> rows;
+        do {
+            rows = auditRepository.searchAfter(criteria, watermark, true, segmentRows);
+            if (rows.isEmpty()) {
+                break;
+            }
+            try {
+                auditArchive.append(rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write audit archive segment", e);
+            }
+            watermark = auditArchive.watermark();
+            delete(rows.stream().map(AuditTrailDTO::getAuditId).toList());
+            moved += rows.size();
+            archived.increment(rows.size());
+        } while (rows.size() == segmentRows);
+
+        if (moved > 0) {
+            log.info("Archived {} audit rows changed before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    // Chunked to stay under Oracle's 1000-element IN list limit
+    private void delete(List<Long> auditIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < auditIds.size(); from += DELETE_CHUNK) {
+                auditRepository.deleteByAuditIds(auditIds.subList(from, Math.min(from + DELETE_CHUNK, auditIds.size())));
+            }
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.erm.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Transient;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Field-level differ over JPA entities. Scalar columns compare by value, to-one associations by the
+// referenced id (never initializing a proxy), collections are skipped. Entities with a column list in
+// AuditSnapshotCodec are read through it; others are resolved reflectively, once per class.
+@Component
+public class AuditDiffer {
+    static final String REDACTED = "[REDACTED]";
+    // Recorded as changed, never with their value
+    private static final Set<String> REDACTED_PROPERTIES = Set.of("passwordHash");
+
+    // Changed properties only, with their old and new values in declaration order
+    public record Delta(Map<String, Object> before, Map<String, Object> after) {
+        public boolean isEmpty() {
+            return before.isEmpty() && after.isEmpty();
+        }
+    }
+
+    private record Property(String name, Function<Object, Object> reader, boolean redacted) {
+    }
+
+    private final AuditSnapshotCodec snapshotCodec;
+    private final Map<Class<?>, List<Property>> propertiesByClass = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AuditDiffer(AuditSnapshotCodec snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+    }
+
+    public static boolean supports(Object value) {
+        return value != null && Hibernate.getClassLazy(value).isAnnotationPresent(Entity.class);
+    }
+
+    // Either side may be null: a create lists every non-null property as new, a delete as old
+    public Delta diff(Object oldEntity, Object newEntity) {
+        Class<?> type = Hibernate.getClassLazy(oldEntity != null ? oldEntity : newEntity);
+        Map<String, Object> before = new LinkedHashMap<>();
+        Map<String, Object> after = new LinkedHashMap<>();
+
+        for (Property property : properties(type)) {
+            Object oldValue = oldEntity != null ? property.reader().apply(oldEntity) : null;
+            Object newValue = newEntity != null ? property.reader().apply(newEntity) : null;
+            if (sameValue(oldValue, newValue)) {
+                continue;
+            }
+            if (oldEntity != null) {
+                before.put(property.name(), mask(property, oldValue));
+            }
+            if (newEntity != null) {
+                after.put(property.name(), mask(property, newValue));
+            }
+        }
+        return new Delta(before, after);
+    }
+
+    private List<Property> properties(Class<?> type) {
+        return propertiesByClass.computeIfAbsent(type, this::resolveProperties);
+    }
+
+    private List<Property> resolveProperties(Class<?> type) {
+        List<AuditSnapshotCodec.Column<Object>> columns = snapshotCodec.columns(type);
+        if (columns != null) {
+            return columns.stream()
+                    .map(column -> new Property(column.name(), column.reader(), column.redacted()))
+                    .toList();
+        }
+
+        List<Property> properties = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())
+                    || field.isAnnotationPresent(Transient.class)
+                    || field.isAnnotationPresent(JsonIgnore.class)
+                    || field.isAnnotationPresent(OneToMany.class)
+                    || field.isAnnotationPresent(ManyToMany.class)) {
+                continue;
+            }
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, field.getName());
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                continue;
+            }
+            boolean association = field.isAnnotationPresent(ManyToOne.class) || field.isAnnotationPresent(OneToOne.class);
+            Method getter = descriptor.getReadMethod();
+            properties.add(new Property(field.getName(), entity -> read(getter, association, entity),
+                    REDACTED_PROPERTIES.contains(field.getName())));
+        }
+        return List.copyOf(properties);
+    }
+
+    // Getters rather than fields, so uninitialized proxies answer through their interceptor
+    private static Object read(Method getter, boolean association, Object entity) {
+        Object value = ReflectionUtils.invokeMethod(getter, entity);
+        return association ? idOf(value) : value;
+    }
+
+    static Object idOf(Object entity) {
+        if (entity == null) {
+            return null;
+        }
+        if (entity instanceof HibernateProxy proxy) {
+            return proxy.getHibernateLazyInitializer().getInternalIdentifier();
+        }
+        Class<?> type = entity.getClass();
+        while (type != null && type != Object.class) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Id.class)) {
+                    ReflectionUtils.makeAccessible(field);
+                    return ReflectionUtils.getField(field, entity);
+                }
+            }
+            type = type.getSuperclass();
+        }
+        return null;
+    }
+
+    // 1000 and 1000.00 are the same salary
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static Object mask(Property property, Object value) {
+        return value != null && property.redacted() ? REDACTED : value;
+    }
+}
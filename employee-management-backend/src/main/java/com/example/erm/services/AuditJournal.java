@@ -0,0 +1,328 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.AuditFormat;
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.entities.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead log of audit rows in memory-mapped segment files. Every entry is
+// [length][crc32][payload]; positions are global byte offsets and a segment file is named after the
+// position it starts at. Appenders share fsyncs: whoever forces the file makes every entry appended
+// so far durable, and the others return without syncing again. A single reader drains entries and
+// records how far it got in the checkpoint file; segments entirely before the checkpoint are deleted.
+final class AuditJournal {
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final long CHECKPOINT_MAGIC = 0x45524D4A4F55524EL;
+    private static final int ENTRY_HEADER = 8;
+    private static final AuditFormat[] FORMATS = AuditFormat.values();
+
+    // An entry read back from the journal; end is the position just after it
+    record Entry(long end, AuditTrail audit) {
+    }
+
+    private record Segment(long base, Path file, MappedByteBuffer buffer) {
+        long end() {
+            return base + buffer.capacity();
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    // Guarded by appendLock
+    private Segment current;
+    private long writePosition;
+    private long appendedEntries;
+    // Written under syncLock
+    private volatile long durable;
+    private long durableEntries;
+    // Only touched by the draining thread
+    private volatile long checkpoint;
+
+    private final Timer syncLatency;
+    private final DistributionSummary syncGroupSize;
+
+    private AuditJournal(Path directory, int segmentSize, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Gauge.builder("erm.audit.journal.backlog", this, AuditJournal::backlog).baseUnit("bytes").register(meterRegistry);
+        syncLatency = Timer.builder("erm.audit.journal.sync.latency").register(meterRegistry);
+        syncGroupSize = DistributionSummary.builder("erm.audit.journal.sync.entries").register(meterRegistry);
+    }
+
+    static boolean exists(Path directory) {
+        return Files.isRegularFile(directory.resolve(CHECKPOINT));
+    }
+
+    // Recovers the write position from the last segment: the first zero length or checksum mismatch is
+    // where the previous process stopped, and anything after it is a torn write
+    static AuditJournal open(Path directory, int segmentSize, MeterRegistry meterRegistry) throws IOException {
+        Files.createDirectories(directory);
+        AuditJournal journal = new AuditJournal(directory, segmentSize, meterRegistry);
+        journal.checkpoint = journal.readCheckpoint();
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().startsWith(PREFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long base = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            Segment segment = map(file, base, Files.size(file), false);
+            if (segment.end() <= journal.checkpoint && !file.equals(files.get(files.size() - 1))) {
+                Files.delete(file);
+            } else {
+                journal.segments.put(base, segment);
+            }
+        }
+
+        if (journal.segments.isEmpty()) {
+            journal.current = journal.createSegment(journal.checkpoint, segmentSize);
+            journal.writePosition = journal.checkpoint;
+        } else {
+            Segment last = journal.segments.lastEntry().getValue();
+            long position = Math.max(last.base(), journal.checkpoint);
+            int size;
+            while ((size = validEntryAt(last, position)) > 0) {
+                position += size;
+            }
+            // Clear the torn tail so a later, shorter entry is not followed by stale bytes
+            int from = (int) (position - last.base());
+            byte[] zeros = new byte[Math.min(8192, Math.max(1, last.buffer().capacity() - from))];
+            for (int at = from; at < last.buffer().capacity(); at += zeros.length) {
+                last.buffer().put(at, zeros, 0, Math.min(zeros.length, last.buffer().capacity() - at));
+            }
+            last.buffer().force();
+            journal.current = last;
+            journal.writePosition = position;
+        }
+        journal.durable = journal.writePosition;
+        if (!exists(directory)) {
+            journal.checkpoint(journal.checkpoint);
+        }
+        if (journal.backlog() > 0) {
+            log.info("Audit journal in {} holds {} bytes not yet written to audit_trail, replaying",
+                    directory.toAbsolutePath(), journal.backlog());
+        }
+        return journal;
+    }
+
+    // Returns once the entry is on disk
+    void append(AuditTrail audit) throws IOException {
+        byte[] payload = encode(audit);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        long end;
+        synchronized (appendLock) {
+            int size = ENTRY_HEADER + payload.length;
+            if (writePosition + size > current.end()) {
+                rollOver(size);
+            }
+            ByteBuffer buffer = current.buffer();
+            int offset = (int) (writePosition - current.base());
+            buffer.putInt(offset + 4, (int) crc.getValue());
+            buffer.put(offset + ENTRY_HEADER, payload);
+            // Length last, a reader never sees a length without the bytes it announces
+            buffer.putInt(offset, payload.length);
+            writePosition += size;
+            appendedEntries++;
+            end = writePosition;
+        }
+        sync(end);
+    }
+
+    // Group commit: the first caller to get here forces everything appended so far
+    private void sync(long end) {
+        synchronized (syncLock) {
+            if (durable >= end) {
+                return;
+            }
+            Segment segment;
+            long target;
+            long entries;
+            synchronized (appendLock) {
+                segment = current;
+                target = writePosition;
+                entries = appendedEntries;
+            }
+            long start = System.nanoTime();
+            // Earlier segments were forced in full when they filled up
+            long from = Math.max(durable, segment.base());
+            segment.buffer().force((int) (from - segment.base()), (int) (target - from));
+            syncLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            syncGroupSize.record(entries - durableEntries);
+            durableEntries = entries;
+            durable = target;
+        }
+    }
+
+    private void rollOver(int size) throws IOException {
+        current.buffer().force();
+        // An oversized entry gets a segment of its own, large enough to hold it
+        current = createSegment(current.end(), Math.max(segmentSize, size));
+        writePosition = current.base();
+    }
+
+    // Up to max durable entries after the checkpoint, in append order
+    List<Entry> read(int max) {
+        List<Entry> entries = new ArrayList<>();
+        long position = checkpoint;
+        long limit = durable;
+        while (entries.size() < max && position < limit) {
+            Map.Entry<Long, Segment> floor = segments.floorEntry(position);
+            Segment segment = floor.getValue();
+            int offset = (int) (position - segment.base());
+            if (offset + ENTRY_HEADER > segment.buffer().capacity() || segment.buffer().getInt(offset) == 0) {
+                // Unused tail of a segment that filled up
+                position = segment.end();
+                continue;
+            }
+            int length = validEntryAt(segment, position) - ENTRY_HEADER;
+            if (length < 0) {
+                throw new IllegalStateException("Corrupt audit journal entry at " + position + " in " + segment.file());
+            }
+            byte[] payload = new byte[length];
+            segment.buffer().get(offset + ENTRY_HEADER, payload);
+            position += ENTRY_HEADER + length;
+            entries.add(new Entry(position, decode(payload)));
+        }
+        return entries;
+    }
+
+    // Everything before position is in audit_trail
+    void checkpoint(long position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(16).putLong(position).putLong(position ^ CHECKPOINT_MAGIC).flip());
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = position;
+
+        Segment head;
+        while ((head = segments.firstEntry().getValue()) != current && head.end() <= position) {
+            segments.remove(head.base());
+            Files.delete(head.file());
+        }
+    }
+
+    // Bytes appended but not drained yet
+    long backlog() {
+        return durable - checkpoint;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        ByteBuffer stored = ByteBuffer.wrap(Files.readAllBytes(file));
+        long position = stored.getLong();
+        if ((position ^ CHECKPOINT_MAGIC) != stored.getLong()) {
+            throw new IOException("Corrupt audit journal checkpoint in " + directory);
+        }
+        return position;
+    }
+
+    // Size of the intact entry at position including its header, or 0 if there is none
+    private static int validEntryAt(Segment segment, long position) {
+        ByteBuffer buffer = segment.buffer();
+        int offset = (int) (position - segment.base());
+        if (offset + ENTRY_HEADER > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + ENTRY_HEADER + length > buffer.capacity()) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + ENTRY_HEADER, length));
+        return (int) crc.getValue() == buffer.getInt(offset + 4) ? ENTRY_HEADER + length : 0;
+    }
+
+    private Segment createSegment(long base, int size) throws IOException {
+        Segment segment = map(directory.resolve(String.format("%s%019d%s", PREFIX, base, SUFFIX)), base, size, true);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    private static Segment map(Path file, long base, long size, boolean create) throws IOException {
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(base, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private static byte[] encode(AuditTrail audit) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            AuditSegment.writeString(out, audit.getTableName());
+            out.writeLong(audit.getRecordId());
+            AuditSegment.writeString(out, audit.getAction());
+            out.writeLong(AuditSegment.toNanos(audit.getChangedAt()));
+            Long changedBy = audit.getChangedBy() != null ? audit.getChangedBy().getUserId() : null;
+            out.writeBoolean(changedBy != null);
+            if (changedBy != null) {
+                out.writeLong(changedBy);
+            }
+            AuditSegment.writeString(out, audit.getOldValues());
+            AuditSegment.writeString(out, audit.getNewValues());
+            out.writeByte(audit.getFormat() != null ? audit.getFormat().ordinal() : -1);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static AuditTrail decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        AuditTrail audit = new AuditTrail();
+        audit.setTableName(AuditSegment.readString(in));
+        audit.setRecordId(in.getLong());
+        audit.setAction(AuditSegment.readString(in));
+        audit.setChangedAt(AuditSegment.toTime(in.getLong()));
+        if (in.get() != 0) {
+            User changedBy = new User();
+            changedBy.setUserId(in.getLong());
+            audit.setChangedBy(changedBy);
+        }
+        audit.setOldValues(AuditSegment.readString(in));
+        audit.setNewValues(AuditSegment.readString(in));
+        byte format = in.get();
+        audit.setFormat(format >= 0 ? FORMATS[format] : null);
+        return audit;
+    }
+}
@@ -0,0 +1,454 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.entities.AuditFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// One immutable archive file. Rows are sorted by (changedAt, auditId) and deflated BLOCK_ROWS at a time.
+// The footer holds fixed-width entries: a block directory with the time range of every block, a
+// (table, record) -> block index and a changedBy -> block index. Lookups binary-search those entries in
+// the memory-mapped file and inflate only the blocks that can match.
+final class AuditSegment {
+    static final int BLOCK_ROWS = 256;
+    static final Comparator<AuditTrailDTO> KEY_ORDER =
+            Comparator.comparing(AuditTrailDTO::getPerformedAt).thenComparing(AuditTrailDTO::getAuditId);
+
+    // "ERMAUDS1"
+    private static final long MAGIC = 0x45524D4155445331L;
+    // offset, compressed length, raw length, rows, min changedAt, max changedAt
+    private static final int BLOCK_ENTRY = 8 + 4 + 4 + 4 + 8 + 8;
+    // table index, record id, block
+    private static final int RECORD_ENTRY = 4 + 8 + 4;
+    // user id, block
+    private static final int AUTHOR_ENTRY = 8 + 4;
+    private static final AuditFormat[] FORMATS = AuditFormat.values();
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final List<String> tables;
+    private final int blockCount;
+    private final int blocksAt;
+    private final int recordCount;
+    private final int recordsAt;
+    private final int authorCount;
+    private final int authorsAt;
+    private final AuditCursor first;
+    private final AuditCursor last;
+
+    private AuditSegment(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        int size = buffer.capacity();
+        if (size < 16 + 8 || buffer.getLong(0) != MAGIC || buffer.getLong(size - 8) != MAGIC) {
+            throw new IOException("Not an audit segment: " + file);
+        }
+        ByteBuffer footer = buffer.duplicate().position((int) buffer.getLong(size - 16));
+        int tableCount = footer.getInt();
+        List<String> names = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            names.add(readString(footer));
+        }
+        tables = List.copyOf(names);
+        blockCount = footer.getInt();
+        blocksAt = footer.position();
+        footer.position(blocksAt + blockCount * BLOCK_ENTRY);
+        recordCount = footer.getInt();
+        recordsAt = footer.position();
+        footer.position(recordsAt + recordCount * RECORD_ENTRY);
+        authorCount = footer.getInt();
+        authorsAt = footer.position();
+        footer.position(authorsAt + authorCount * AUTHOR_ENTRY);
+        first = new AuditCursor("ASC", toTime(footer.getLong()), footer.getLong());
+        last = new AuditCursor("ASC", toTime(footer.getLong()), footer.getLong());
+    }
+
+    // The mapping outlives the channel; the file is never modified once written
+    static AuditSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Audit segment too large to map: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new AuditSegment(file, mapped);
+        }
+    }
+
+    // rows must be non-empty and in KEY_ORDER; the file is forced to disk before this returns
+    static void write(Path file, List<AuditTrailDTO> rows) throws IOException {
+        Map<String, Integer> tableIndex = new LinkedHashMap<>();
+        List<long[]> records = new ArrayList<>();
+        List<long[]> authors = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeLong(MAGIC);
+
+            ByteArrayOutputStream directory = new ByteArrayOutputStream();
+            DataOutputStream entries = new DataOutputStream(directory);
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                for (int from = 0, block = 0; from < rows.size(); from += BLOCK_ROWS, block++) {
+                    List<AuditTrailDTO> blockRows = rows.subList(from, Math.min(from + BLOCK_ROWS, rows.size()));
+                    ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                    DataOutputStream rowOut = new DataOutputStream(raw);
+                    for (AuditTrailDTO row : blockRows) {
+                        writeRow(rowOut, row);
+                        int table = tableIndex.computeIfAbsent(row.getTableName(), name -> tableIndex.size());
+                        records.add(new long[]{table, row.getRecordId(), block});
+                        if (row.getPerformedById() != null) {
+                            authors.add(new long[]{row.getPerformedById(), block});
+                        }
+                    }
+                    byte[] compressed = deflate(deflater, raw.toByteArray());
+
+                    entries.writeLong(out.size());
+                    entries.writeInt(compressed.length);
+                    entries.writeInt(raw.size());
+                    entries.writeInt(blockRows.size());
+                    entries.writeLong(toNanos(blockRows.get(0).getPerformedAt()));
+                    entries.writeLong(toNanos(blockRows.get(blockRows.size() - 1).getPerformedAt()));
+                    out.write(compressed);
+                }
+            } finally {
+                deflater.end();
+            }
+
+            long footerAt = out.size();
+            out.writeInt(tableIndex.size());
+            for (String table : tableIndex.keySet()) {
+                writeString(out, table);
+            }
+            out.writeInt(directory.size() / BLOCK_ENTRY);
+            directory.writeTo(out);
+            writeIndex(out, records, 3);
+            writeIndex(out, authors, 2);
+            AuditTrailDTO firstRow = rows.get(0);
+            AuditTrailDTO lastRow = rows.get(rows.size() - 1);
+            out.writeLong(toNanos(firstRow.getPerformedAt()));
+            out.writeLong(firstRow.getAuditId());
+            out.writeLong(toNanos(lastRow.getPerformedAt()));
+            out.writeLong(lastRow.getAuditId());
+            out.writeLong(footerAt);
+            out.writeLong(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    // Key of the first and last row
+    AuditCursor first() {
+        return first;
+    }
+
+    AuditCursor last() {
+        return last;
+    }
+
+    boolean overlaps(AuditSearchCriteria criteria, AuditCursor after, boolean ascending) {
+        if (criteria.getChangedFrom() != null && last.getLastChangedAt().isBefore(criteria.getChangedFrom())) {
+            return false;
+        }
+        if (criteria.getChangedTo() != null && !first.getLastChangedAt().isBefore(criteria.getChangedTo())) {
+            return false;
+        }
+        if (after == null) {
+            return true;
+        }
+        return ascending ? compare(last, after) > 0 : compare(first, after) < 0;
+    }
+
+    // Every audit id in the segment, in key order; inflates all blocks
+    List<Long> auditIds() {
+        List<Long> ids = new ArrayList<>();
+        for (int block = 0; block < blockCount; block++) {
+            readBlock(block).forEach(row -> ids.add(row.getAuditId()));
+        }
+        return ids;
+    }
+
+    // Matching rows strictly after the cursor in the requested direction, at most limit of them
+    List<AuditTrailDTO> find(AuditSearchCriteria criteria, AuditCursor after, boolean ascending, int limit) {
+        List<AuditTrailDTO> found = new ArrayList<>();
+        BitSet candidates = candidateBlocks(criteria, after, ascending);
+        int block = ascending ? candidates.nextSetBit(0) : candidates.previousSetBit(blockCount - 1);
+        while (block >= 0 && found.size() < limit) {
+            List<AuditTrailDTO> rows = readBlock(block);
+            for (int i = 0; i < rows.size() && found.size() < limit; i++) {
+                AuditTrailDTO row = rows.get(ascending ? i : rows.size() - 1 - i);
+                if (matches(row, criteria, after, ascending)) {
+                    found.add(row);
+                }
+            }
+            block = ascending ? candidates.nextSetBit(block + 1) : candidates.previousSetBit(block - 1);
+        }
+        return found;
+    }
+
+    private BitSet candidateBlocks(AuditSearchCriteria criteria, AuditCursor after, boolean ascending) {
+        long from = criteria.getChangedFrom() != null ? toNanos(criteria.getChangedFrom()) : Long.MIN_VALUE;
+        long to = criteria.getChangedTo() != null ? toNanos(criteria.getChangedTo()) : Long.MAX_VALUE;
+        if (after != null) {
+            // Inclusive, the cursor row's instant may still hold rows with a larger or smaller auditId
+            long key = toNanos(after.getLastChangedAt());
+            from = ascending ? Math.max(from, key) : from;
+            to = ascending ? to : Math.min(to, key + 1);
+        }
+        BitSet candidates = new BitSet(blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            int entry = blocksAt + block * BLOCK_ENTRY;
+            long minAt = buffer.getLong(entry + 20);
+            long maxAt = buffer.getLong(entry + 28);
+            if (maxAt >= from && minAt < to) {
+                candidates.set(block);
+            }
+        }
+
+        if (criteria.getTableName() != null || criteria.getRecordId() != null) {
+            BitSet byRecord = new BitSet(blockCount);
+            for (int table = 0; table < tables.size(); table++) {
+                if (criteria.getTableName() == null || criteria.getTableName().equals(tables.get(table))) {
+                    long minRecord = criteria.getRecordId() != null ? criteria.getRecordId() : Long.MIN_VALUE;
+                    long maxRecord = criteria.getRecordId() != null ? criteria.getRecordId() : Long.MAX_VALUE;
+                    int i = lowerBound(recordsAt, recordCount, RECORD_ENTRY, table, minRecord);
+                    for (; i < recordCount; i++) {
+                        int entry = recordsAt + i * RECORD_ENTRY;
+                        if (buffer.getInt(entry) != table || buffer.getLong(entry + 4) > maxRecord) {
+                            break;
+                        }
+                        byRecord.set(buffer.getInt(entry + 12));
+                    }
+                }
+            }
+            candidates.and(byRecord);
+        }
+
+        if (criteria.getChangedBy() != null) {
+            BitSet byAuthor = new BitSet(blockCount);
+            int i = lowerBound(authorsAt, authorCount, AUTHOR_ENTRY, -1, criteria.getChangedBy());
+            for (; i < authorCount; i++) {
+                int entry = authorsAt + i * AUTHOR_ENTRY;
+                if (buffer.getLong(entry) != criteria.getChangedBy()) {
+                    break;
+                }
+                byAuthor.set(buffer.getInt(entry + 8));
+            }
+            candidates.and(byAuthor);
+        }
+        return candidates;
+    }
+
+    // First entry not below (table, id); author entries have no table column, pass -1
+    private int lowerBound(int at, int count, int width, int table, long id) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int entry = at + mid * width;
+            int cmp = table < 0
+                    ? Long.compare(buffer.getLong(entry), id)
+                    : table != buffer.getInt(entry)
+                    ? Integer.compare(buffer.getInt(entry), table)
+                    : Long.compare(buffer.getLong(entry + 4), id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<AuditTrailDTO> readBlock(int block) {
+        int entry = blocksAt + block * BLOCK_ENTRY;
+        int offset = (int) buffer.getLong(entry);
+        int compressedLength = buffer.getInt(entry + 8);
+        byte[] raw = new byte[buffer.getInt(entry + 12)];
+        int rows = buffer.getInt(entry + 16);
+
+        Inflater inflater = new Inflater();
+        try {
+            // Straight from the mapped pages, no intermediate copy
+            inflater.setInput(buffer.slice(offset, compressedLength));
+            int inflated = 0;
+            while (inflated < raw.length && !inflater.finished()) {
+                inflated += inflater.inflate(raw, inflated, raw.length - inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt audit segment " + file + " block " + block, e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        List<AuditTrailDTO> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            result.add(readRow(in));
+        }
+        return result;
+    }
+
+    // Same conditions as AuditRepositoryImpl.searchAfter
+    static boolean matches(AuditTrailDTO row, AuditSearchCriteria criteria, AuditCursor after, boolean ascending) {
+        if (criteria.getTableName() != null && !criteria.getTableName().equals(row.getTableName())) {
+            return false;
+        }
+        if (criteria.getRecordId() != null && !criteria.getRecordId().equals(row.getRecordId())) {
+            return false;
+        }
+        if (criteria.getChangedBy() != null && !criteria.getChangedBy().equals(row.getPerformedById())) {
+            return false;
+        }
+        if (criteria.getAction() != null && !criteria.getAction().equals(row.getAction())) {
+            return false;
+        }
+        if (criteria.getChangedFrom() != null && row.getPerformedAt().isBefore(criteria.getChangedFrom())) {
+            return false;
+        }
+        if (criteria.getChangedTo() != null && !row.getPerformedAt().isBefore(criteria.getChangedTo())) {
+            return false;
+        }
+        if (after == null) {
+            return true;
+        }
+        int cmp = compare(new AuditCursor("ASC", row.getPerformedAt(), row.getAuditId()), after);
+        return ascending ? cmp > 0 : cmp < 0;
+    }
+
+    private static int compare(AuditCursor a, AuditCursor b) {
+        int cmp = a.getLastChangedAt().compareTo(b.getLastChangedAt());
+        return cmp != 0 ? cmp : Long.compare(a.getLastAuditId(), b.getLastAuditId());
+    }
+
+    private static void writeIndex(DataOutputStream out, List<long[]> entries, int width) throws IOException {
+        entries.sort((a, b) -> {
+            for (int i = 0; i < width; i++) {
+                int cmp = Long.compare(a[i], b[i]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        });
+        List<long[]> distinct = new ArrayList<>(entries.size());
+        for (long[] entry : entries) {
+            if (distinct.isEmpty() || !Arrays.equals(distinct.get(distinct.size() - 1), entry)) {
+                distinct.add(entry);
+            }
+        }
+        out.writeInt(distinct.size());
+        for (long[] entry : distinct) {
+            if (width == 3) {
+                out.writeInt((int) entry[0]);
+                out.writeLong(entry[1]);
+                out.writeInt((int) entry[2]);
+            } else {
+                out.writeLong(entry[0]);
+                out.writeInt((int) entry[1]);
+            }
+        }
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeRow(DataOutputStream out, AuditTrailDTO row) throws IOException {
+        out.writeLong(row.getAuditId());
+        writeString(out, row.getTableName());
+        out.writeLong(row.getRecordId());
+        writeString(out, row.getAction());
+        out.writeLong(toNanos(row.getPerformedAt()));
+        out.writeBoolean(row.getPerformedById() != null);
+        if (row.getPerformedById() != null) {
+            out.writeLong(row.getPerformedById());
+        }
+        writeString(out, row.getPerformedBy());
+        writeString(out, row.getOldValues());
+        writeString(out, row.getNewValues());
+        out.writeByte(row.getFormat() != null ? row.getFormat().ordinal() : -1);
+    }
+
+    private static AuditTrailDTO readRow(ByteBuffer in) {
+        AuditTrailDTO row = new AuditTrailDTO();
+        row.setAuditId(in.getLong());
+        row.setTableName(readString(in));
+        row.setRecordId(in.getLong());
+        row.setAction(readString(in));
+        row.setPerformedAt(toTime(in.getLong()));
+        row.setPerformedById(in.get() != 0 ? in.getLong() : null);
+        row.setPerformedBy(readString(in));
+        row.setOldValues(readString(in));
+        row.setNewValues(readString(in));
+        byte format = in.get();
+        row.setFormat(format >= 0 ? FORMATS[format] : null);
+        return row;
+    }
+
+    // Length-prefixed UTF-8, -1 for null; audit values are CLOBs and can exceed writeUTF's 64 KB
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // changedAt is a zone-less LocalDateTime, UTC is only used as a fixed reference for the arithmetic
+    static long toNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    static LocalDateTime toTime(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
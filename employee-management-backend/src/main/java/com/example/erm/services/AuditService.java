@@ -1,27 +1,65 @@
 package com.example.erm.services;
 
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.dto.AuditVersionDTO;
+import com.example.erm.dto.CursorSlice;
+import com.example.erm.entities.AuditFormat;
 import com.example.erm.entities.AuditTrail;
 import com.example.erm.entities.User;
+import com.example.erm.exceptions.ValidationException;
 import com.example.erm.repositories.AuditRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Transactional
 public class AuditService {
+    private static final TypeReference<LinkedHashMap<String, Object>> VALUES = new TypeReference<>() {
+    };
+
     private final AuditRepository auditRepository;
+    private final AuditWriter auditWriter;
+    private final AuditDiffer auditDiffer;
+    private final AuditArchive auditArchive;
+    private final AuditSnapshotCodec snapshotCodec;
     private final ObjectMapper objectMapper;
+    private final AuditFormat format;
+    private final int maxPageSize;
 
     @Autowired
-    public AuditService(AuditRepository auditRepository, ObjectMapper objectMapper) {
+    public AuditService(AuditRepository auditRepository, AuditWriter auditWriter, AuditDiffer auditDiffer,
+                        AuditArchive auditArchive, AuditSnapshotCodec snapshotCodec, ObjectMapper objectMapper, @Value("${erm.audit.format:delta}") AuditFormat format,
+                        @Value("${erm.audit.query.max-size:500}") int maxPageSize) {
         this.auditRepository = auditRepository;
+        this.auditWriter = auditWriter;
+        this.auditDiffer = auditDiffer;
+        this.auditArchive = auditArchive;
+        this.snapshotCodec = snapshotCodec;
         this.objectMapper = objectMapper;
+        this.format = format;
+        this.maxPageSize = maxPageSize;
     }
 
+    // Old and new state are serialized here, inside the business transaction, whatever the write mode.
+    // DELTA keeps only the properties that changed; values that are not entities are always snapshots.
+    // Employees, departments and users are written by the snapshot codec, anything else by Jackson.
     public void logActivity(String tableName, Long recordId, String action,
                             Object oldValue, Object newValue, User user) {
         try {
@@ -31,28 +69,242 @@ public class AuditService {
             audit.setAction(action);
             audit.setChangedBy(user);
 
-            if (oldValue != null) {
-                audit.setOldValues(objectMapper.writeValueAsString(oldValue));
-            }
-            if (newValue != null) {
-                audit.setNewValues(objectMapper.writeValueAsString(newValue));
+            if (format == AuditFormat.DELTA && (AuditDiffer.supports(oldValue) || AuditDiffer.supports(newValue))) {
+                AuditDiffer.Delta delta = auditDiffer.diff(oldValue, newValue);
+                audit.setFormat(AuditFormat.DELTA);
+                if (oldValue != null) {
+                    audit.setOldValues(snapshotCodec.write(delta.before()));
+                }
+                if (newValue != null) {
+                    audit.setNewValues(snapshotCodec.write(delta.after()));
+                }
+            } else {
+                audit.setFormat(AuditFormat.SNAPSHOT);
+                if (oldValue != null) {
+                    audit.setOldValues(snapshot(oldValue));
+                }
+                if (newValue != null) {
+                    audit.setNewValues(snapshot(newValue));
+                }
             }
 
-            auditRepository.save(audit);
+            auditWriter.write(audit);
         } catch (Exception e) {
             throw new RuntimeException("Error logging audit trail", e);
         }
     }
 
-    public List<AuditTrail> getAuditTrail(String tableName, Long recordId) {
-        return auditRepository.findByTableNameAndRecordId(tableName, recordId);
+    private String snapshot(Object value) throws JsonProcessingException {
+        return snapshotCodec.supports(value) ? snapshotCodec.write(value) : objectMapper.writeValueAsString(value);
+    }
+
+    // Replays the record's audit rows oldest first, archived ones included, carrying state forward so delta
+    // rows get full before/after views. Delta rows only list what changed, so the state at the cursor is
+    // rebuilt by replaying the rows before it, at most maxPageSize per statement; only the requested slice
+    // is kept in memory.
+    @Transactional(readOnly = true)
+    public CursorSlice<AuditVersionDTO> getHistory(String tableName, Long recordId, String after, Integer size) {
+        int limit = pageSize(size);
+        AuditCursor from = null;
+        if (after != null && !after.isBlank()) {
+            from = AuditCursor.decode(after);
+            if (!from.getSortDirection().equals(Sort.Direction.ASC.name())) {
+                throw new ValidationException("Cursor does not match the requested sort",
+                        Map.of("after", "Cursor was not issued by a history request"));
+            }
+        }
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setTableName(tableName);
+        criteria.setRecordId(recordId);
+
+        // One extra version tells whether another slice exists
+        List<AuditVersionDTO> versions = new ArrayList<>(limit + 1);
+        Map<String, Object> state = null;
+        AuditCursor position = null;
+        List<AuditTrailDTO> rows;
+        do {
+            rows = read(criteria, position, true, maxPageSize);
+            for (int i = 0; i < rows.size() && versions.size() <= limit; i++) {
+                AuditTrailDTO audit = rows.get(i);
+                AuditVersionDTO version = replay(audit, state);
+                state = version.getAfter();
+                if (from == null || AuditSegment.matches(audit, criteria, from, true)) {
+                    versions.add(version);
+                }
+            }
+            if (!rows.isEmpty()) {
+                position = AuditCursor.of(rows.get(rows.size() - 1), Sort.Direction.ASC.name());
+            }
+        } while (rows.size() == maxPageSize && versions.size() <= limit);
+
+        boolean hasNext = versions.size() > limit;
+        List<AuditVersionDTO> content = hasNext ? versions.subList(0, limit) : versions;
+        String nextCursor = hasNext
+                ? new AuditCursor(Sort.Direction.ASC.name(), content.get(limit - 1).getChangedAt(),
+                        content.get(limit - 1).getAuditId()).encode()
+                : null;
+        return new CursorSlice<>(content, limit, hasNext, nextCursor);
+    }
+
+    private AuditVersionDTO replay(AuditTrailDTO audit, Map<String, Object> state) {
+        Map<String, Object> oldValues = parse(audit.getOldValues());
+        Map<String, Object> newValues = parse(audit.getNewValues());
+
+        Map<String, Object> before;
+        Map<String, Object> after;
+        List<String> changedFields;
+        if (audit.getFormat() == AuditFormat.DELTA) {
+            before = state == null && oldValues == null ? null : new LinkedHashMap<>(state != null ? state : Map.of());
+            if (oldValues != null) {
+                // Authoritative for the properties it lists, and covers history that predates the audit log
+                before.putAll(oldValues);
+            }
+            if (newValues == null) {
+                after = null;
+            } else {
+                after = new LinkedHashMap<>(before != null ? before : Map.of());
+                after.putAll(newValues);
+            }
+            Set<String> names = new LinkedHashSet<>();
+            names.addAll(oldValues != null ? oldValues.keySet() : Set.of());
+            names.addAll(newValues != null ? newValues.keySet() : Set.of());
+            changedFields = List.copyOf(names);
+        } else {
+            before = oldValues != null ? oldValues : state;
+            after = newValues;
+            changedFields = changedFields(before, after);
+        }
+
+        AuditVersionDTO version = new AuditVersionDTO();
+        version.setAuditId(audit.getAuditId());
+        version.setAction(audit.getAction());
+        version.setChangedAt(audit.getPerformedAt());
+        version.setChangedBy(audit.getPerformedBy());
+        version.setBefore(before);
+        version.setAfter(after);
+        version.setChangedFields(changedFields);
+        return version;
+    }
+
+    private Map<String, Object> parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, VALUES);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable audit values", e);
+        }
+    }
+
+    private static List<String> changedFields(Map<String, Object> before, Map<String, Object> after) {
+        Set<String> names = new LinkedHashSet<>();
+        if (before != null) {
+            names.addAll(before.keySet());
+        }
+        if (after != null) {
+            names.addAll(after.keySet());
+        }
+        List<String> changed = new ArrayList<>();
+        for (String name : names) {
+            Object oldValue = before != null ? before.get(name) : null;
+            Object newValue = after != null ? after.get(name) : null;
+            if (!Objects.equals(oldValue, newValue)) {
+                changed.add(name);
+            }
+        }
+        return changed;
+    }
+
+    // Newest first unless sortDirection says otherwise; every read of the audit log goes through here
+    @Transactional(readOnly = true)
+    public CursorSlice<AuditTrailDTO> search(AuditSearchCriteria criteria) {
+        int size = pageSize(criteria.getSize());
+        if (criteria.getChangedFrom() != null && criteria.getChangedTo() != null
+                && !criteria.getChangedFrom().isBefore(criteria.getChangedTo())) {
+            throw new ValidationException("Invalid date range",
+                    Map.of("changedTo", "Must be after changedFrom"));
+        }
+        Sort.Direction direction = Sort.Direction.fromString(
+                criteria.getSortDirection() != null ? criteria.getSortDirection() : "DESC");
+
+        AuditCursor after = null;
+        if (criteria.getAfter() != null && !criteria.getAfter().isBlank()) {
+            after = AuditCursor.decode(criteria.getAfter());
+            if (!after.getSortDirection().equals(direction.name())) {
+                throw new ValidationException("Cursor does not match the requested sort",
+                        Map.of("after", "Cursor was issued for a different sortDirection"));
+            }
+        }
+
+        // One extra row tells whether another slice exists
+        List<AuditTrailDTO> rows = read(criteria, after, direction.isAscending(), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<AuditTrailDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? AuditCursor.of(content.get(content.size() - 1), direction.name()).encode()
+                : null;
+        return new CursorSlice<>(content, size, hasNext, nextCursor);
     }
 
-    // get all audit logs
-    public List<AuditTrail> getAllAuditTrail() {
-        return auditRepository.findAll();
+    private int pageSize(Integer size) {
+        int value = size != null ? size : 50;
+        if (value < 1 || value > maxPageSize) {
+            throw new ValidationException("Invalid page size",
+                    Map.of("size", "Must be between 1 and " + maxPageSize));
+        }
+        return value;
+    }
+
+    // Live rows plus archived ones when the archive can hold matches. Both sides come back in key order,
+    // so a merge of the two heads is exact; a row caught mid-archival is in both and is kept once.
+    private List<AuditTrailDTO> read(AuditSearchCriteria criteria, AuditCursor after, boolean ascending, int limit) {
+        List<AuditTrailDTO> live = auditRepository.searchAfter(criteria, after, ascending, limit);
+        AuditCursor watermark = auditArchive.watermark();
+        if (watermark == null || (criteria.getChangedFrom() != null
+                && criteria.getChangedFrom().isAfter(watermark.getLastChangedAt()))) {
+            return live;
+        }
+        List<AuditTrailDTO> archived = auditArchive.find(criteria, after, ascending, limit);
+        if (archived.isEmpty()) {
+            return live;
+        }
+
+        Comparator<AuditTrailDTO> order = ascending ? AuditSegment.KEY_ORDER : AuditSegment.KEY_ORDER.reversed();
+        List<AuditTrailDTO> merged = new ArrayList<>(Math.min(limit, live.size() + archived.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < live.size() || j < archived.size())) {
+            AuditTrailDTO next;
+            if (j == archived.size() || (i < live.size() && order.compare(live.get(i), archived.get(j)) <= 0)) {
+                next = live.get(i++);
+            } else {
+                next = archived.get(j++);
+            }
+            if (merged.isEmpty() || !merged.get(merged.size() - 1).getAuditId().equals(next.getAuditId())) {
+                merged.add(next);
+            }
+        }
+        return merged;
     }
-    public List<AuditTrail> getUserActions(Long userId) {
-        return auditRepository.findByChangedBy_UserId(userId);
+
+    @Transactional(readOnly = true)
+    public CursorSlice<AuditTrailDTO> getAuditTrail(String tableName, Long recordId, String after, Integer size) {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setTableName(tableName);
+        criteria.setRecordId(recordId);
+        criteria.setAfter(after);
+        criteria.setSize(size);
+        return search(criteria);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSlice<AuditTrailDTO> getUserActions(Long userId, String after, Integer size) {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setChangedBy(userId);
+        criteria.setAfter(after);
+        criteria.setSize(size);
+        return search(criteria);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Audit JSON without Jackson or reflection. Each audited entity has a hand-written column list: its
+// scalars plus the ids of to-one references, never a collection, so nothing lazy is ever loaded.
+// Text is built in a per-thread buffer reused across calls and matches what the application's
+// ObjectMapper writes for the same values.
+@Component
+public class AuditSnapshotCodec {
+    // Reference columns read the id through the proxy, which Hibernate answers without initializing it
+    public record Column<E>(String name, Function<E, Object> reader, boolean redacted) {
+    }
+
+    // The @Version columns are left out on purpose: they are lock bookkeeping, not audited state
+    private static final Map<Class<?>, List<? extends Column<?>>> COLUMNS = Map.of(
+            Employee.class, List.<Column<Employee>>of(
+                    column("empId", Employee::getEmpId),
+                    column("firstName", Employee::getFirstName),
+                    column("lastName", Employee::getLastName),
+                    column("email", Employee::getEmail),
+                    column("hireDate", Employee::getHireDate),
+                    column("jobTitle", Employee::getJobTitle),
+                    column("department", e -> e.getDepartment() != null ? e.getDepartment().getDeptId() : null),
+                    column("manager", e -> e.getManager() != null ? e.getManager().getEmpId() : null),
+                    column("salary", Employee::getSalary),
+                    column("status", Employee::getStatus),
+                    column("createdAt", Employee::getCreatedAt),
+                    column("updatedAt", Employee::getUpdatedAt),
+                    column("createdBy", e -> e.getCreatedBy() != null ? e.getCreatedBy().getUserId() : null),
+                    column("updatedBy", e -> e.getUpdatedBy() != null ? e.getUpdatedBy().getUserId() : null)),
+            Department.class, List.<Column<Department>>of(
+                    column("deptId", Department::getDeptId),
+                    column("deptName", Department::getDeptName),
+                    column("createdAt", Department::getCreatedAt)),
+            User.class, List.<Column<User>>of(
+                    column("userId", User::getUserId),
+                    column("username", User::getUsername),
+                    new Column<>("passwordHash", User::getPasswordHash, true),
+                    column("role", User::getRole),
+                    column("email", User::getEmail),
+                    column("createdAt", User::getCreatedAt),
+                    column("lastLogin", User::getLastLogin),
+                    column("department", u -> u.getDepartment() != null ? u.getDepartment().getDeptId() : null)));
+
+    // A buffer that grew past this for one huge value is not kept around
+    private static final int MAX_RETAINED = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AuditSnapshotCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean supports(Object value) {
+        return value != null && COLUMNS.containsKey(Hibernate.getClassLazy(value));
+    }
+
+    // Null for classes without a column list
+    @SuppressWarnings("unchecked")
+    public List<Column<Object>> columns(Class<?> type) {
+        return (List<Column<Object>>) COLUMNS.get(type);
+    }
+
+    // Every column of a supported entity as a JSON object
+    public String write(Object entity) {
+        List<Column<Object>> columns = columns(Hibernate.getClassLazy(entity));
+        StringBuilder out = buffer();
+        out.append('{');
+        for (int i = 0; i < columns.size(); i++) {
+            Column<Object> column = columns.get(i);
+            Object value = column.reader().apply(entity);
+            if (i > 0) {
+                out.append(',');
+            }
+            appendString(out, column.name());
+            out.append(':');
+            appendValue(out, column.redacted() && value != null ? AuditDiffer.REDACTED : value);
+        }
+        return out.append('}').toString();
+    }
+
+    // A map of column values, as produced by AuditDiffer, as a JSON object
+    public String write(Map<String, Object> values) {
+        StringBuilder out = buffer();
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendString(out, entry.getKey());
+            out.append(':');
+            appendValue(out, entry.getValue());
+        }
+        return out.append('}').toString();
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer.capacity() > MAX_RETAINED) {
+            buffer = new StringBuilder(512);
+            BUFFER.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String text) {
+            appendString(out, text);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Boolean
+                || value instanceof BigDecimal) {
+            out.append(value);
+        } else if (value instanceof Enum<?> constant) {
+            appendString(out, constant.name());
+        } else if (value instanceof LocalDate date) {
+            out.append('"');
+            DateTimeFormatter.ISO_LOCAL_DATE.formatTo(date, out);
+            out.append('"');
+        } else if (value instanceof LocalDateTime time) {
+            out.append('"');
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(time, out);
+            out.append('"');
+        } else {
+            // Columns of entities without a hand-written list
+            try {
+                out.append(objectMapper.writeValueAsString(value));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot write audit value of " + value.getClass(), e);
+            }
+        }
+    }
+
+    private static void appendString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static <E> Column<E> column(String name, Function<E, Object> reader) {
+        return new Column<>(name, reader, false);
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.entities.User;
+import com.example.erm.repositories.AuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Persists audit rows. SYNC inserts inside the business transaction, so the row commits or rolls back
+// with the change it describes. ASYNC hands the row to a bounded queue once that transaction commits
+// and a background thread batch-inserts whatever has accumulated; rows still queued are lost if the
+// process dies, and the overflow policy decides what happens when the queue is full. While the database
+// is unreachable the background thread holds its batch and retries with backoff, so the queue fills and
+// the overflow policy applies; only a row that itself violates a constraint is skipped. JOURNAL appends
+// the row to a local write-ahead log at commit instead, so a slow database never holds up the caller
+// and nothing is lost on a crash; the log is drained in the background and replayed on startup.
+// Draining is at-least-once: a crash between an insert and its checkpoint writes that batch again.
+@Component
+public class AuditWriter {
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    public enum Mode {
+        SYNC,
+        ASYNC,
+        JOURNAL
+    }
+
+    public enum Overflow {
+        // Wait up to block-timeout for space, then write on the caller thread; nothing is dropped
+        BLOCK,
+        // Write on the caller thread straight away
+        CALLER_RUNS,
+        // Discard the row and count it in erm.audit.dropped
+        DROP
+    }
+
+    private final AuditRepository auditRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Mode mode;
+    private final Overflow overflow;
+    private final int maxBatchSize;
+    private final Duration blockTimeout;
+    private final BlockingQueue<AuditTrail> queue;
+    private final Path journalDirectory;
+    private final int journalSegmentSize;
+    private final MeterRegistry meterRegistry;
+    private volatile AuditJournal journal;
+
+    // Queued plus currently being written, lets callers wait for the queue to settle
+    private final AtomicLong pending = new AtomicLong();
+    private volatile boolean running;
+    private Thread flusher;
+
+    private final Timer flushLatency;
+    private final Timer enqueueWait;
+    private final DistributionSummary batchSize;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Counter callerRuns;
+    private final Counter drainRetries;
+    private final Counter flushRetries;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public AuditWriter(AuditRepository auditRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${erm.audit.mode:sync}") Mode mode,
+                       @Value("${erm.audit.async.overflow:block}") Overflow overflow,
+                       @Value("${erm.audit.async.queue-capacity:10000}") int queueCapacity,
+                       @Value("${erm.audit.async.max-batch-size:200}") int maxBatchSize,
+                       @Value("${erm.audit.async.block-timeout:5s}") Duration blockTimeout,
+                       @Value("${erm.audit.journal.directory:audit-journal}") String journalDirectory,
+                       @Value("${erm.audit.journal.segment-size:16MB}") DataSize journalSegmentSize) {
+        this.auditRepository = auditRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Async writes run after the business transaction has committed, never inside it
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mode = mode;
+        this.overflow = overflow;
+        this.maxBatchSize = maxBatchSize;
+        this.blockTimeout = blockTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.journalDirectory = Path.of(journalDirectory);
+        this.journalSegmentSize = (int) Math.min(journalSegmentSize.toBytes(), Integer.MAX_VALUE);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("erm.audit.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("erm.audit.queue.remaining", queue, BlockingQueue::remainingCapacity).register(meterRegistry);
+        flushLatency = Timer.builder("erm.audit.flush.latency").register(meterRegistry);
+        enqueueWait = Timer.builder("erm.audit.enqueue.wait").register(meterRegistry);
+        batchSize = DistributionSummary.builder("erm.audit.flush.batch-size").register(meterRegistry);
+        written = Counter.builder("erm.audit.written").register(meterRegistry);
+        failed = Counter.builder("erm.audit.failed").register(meterRegistry);
+        dropped = Counter.builder("erm.audit.dropped").register(meterRegistry);
+        callerRuns = Counter.builder("erm.audit.caller-runs").register(meterRegistry);
+        drainRetries = Counter.builder("erm.audit.journal.drain.retries").register(meterRegistry);
+        flushRetries = Counter.builder("erm.audit.flush.retries").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (mode == Mode.JOURNAL) {
+            journal = AuditJournal.open(journalDirectory, journalSegmentSize, meterRegistry);
+        } else if (AuditJournal.exists(journalDirectory)) {
+            // Left over from a run in journal mode; written out once, then the journal stays idle
+            replay(AuditJournal.open(journalDirectory, journalSegmentSize, meterRegistry));
+        }
+        if (mode == Mode.SYNC) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(mode == Mode.JOURNAL ? this::drainJournalLoop : this::drainLoop, "audit-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Stops taking new work from the loop and writes out whatever is still queued
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public void write(AuditTrail audit) {
+        if (mode == Mode.SYNC) {
+            auditRepository.save(audit);
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            if (mode == Mode.JOURNAL) {
+                append(audit);
+            } else {
+                enqueue(audit);
+            }
+        });
+    }
+
+    // True once nothing is queued or being written, or false if the timeout elapsed first
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0 || (journal != null && journal.backlog() > 0)) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private void enqueue(AuditTrail audit) {
+        pending.incrementAndGet();
+        if (queue.offer(audit)) {
+            return;
+        }
+        if (overflow == Overflow.BLOCK && offerWithin(audit)) {
+            return;
+        }
+        if (overflow == Overflow.DROP) {
+            pending.decrementAndGet();
+            dropped.increment();
+            log.warn("Audit queue full, dropped {} {} on {}", audit.getAction(), audit.getRecordId(),
+                    audit.getTableName());
+            return;
+        }
+        callerRuns.increment();
+        writeNow(audit);
+    }
+
+    private void append(AuditTrail audit) {
+        try {
+            journal.append(audit);
+        } catch (IOException | RuntimeException e) {
+            // Disk full or the like: the database is still there
+            log.warn("Could not append to the audit journal, writing {} {} on {} directly", audit.getAction(),
+                    audit.getRecordId(), audit.getTableName(), e);
+            callerRuns.increment();
+            pending.incrementAndGet();
+            writeNow(audit);
+        }
+    }
+
+    private boolean offerWithin(AuditTrail audit) {
+        long start = System.nanoTime();
+        try {
+            return queue.offer(audit, blockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            enqueueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // On the caller thread there is nowhere to hold the row while the database is down, so it is counted
+    // as failed rather than retried
+    private void writeNow(AuditTrail audit) {
+        if (!persist(new ArrayList<>(List.of(audit)))) {
+            failed.increment();
+            pending.decrementAndGet();
+            log.error("Could not write audit row {} {} on {}, database unavailable", audit.getAction(),
+                    audit.getRecordId(), audit.getTableName());
+        }
+    }
+
+    // Batches form naturally: under load everything that piled up during the last insert goes in the next one
+    private void drainLoop() {
+        List<AuditTrail> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditTrail first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                // Backs off while the database is unavailable, the batch is kept until it is written
+                long backoff = 0;
+                while (!persist(batch)) {
+                    backoff = Math.min(Math.max(backoff * 2, 100), 30_000);
+                    Thread.sleep(backoff);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Audit writer loop failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Backs off while the database is unavailable; the entries stay in the journal until they are written
+    private void drainJournalLoop() {
+        long backoff = 0;
+        while (running) {
+            try {
+                if (backoff > 0) {
+                    Thread.sleep(backoff);
+                }
+                backoff = drainJournal(journal) ? 0 : Math.min(Math.max(backoff * 2, 100), 30_000);
+                if (backoff == 0 && journal.backlog() == 0) {
+                    Thread.sleep(10);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (IOException | RuntimeException e) {
+                log.error("Audit journal drain failed", e);
+                backoff = Math.max(backoff, 1000);
+            }
+        }
+        try {
+            // Best effort on shutdown, whatever is left is replayed on the next start
+            while (journal.backlog() > 0 && drainJournal(journal)) {
+                // keep draining
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Audit journal not fully drained on shutdown", e);
+        }
+    }
+
+    private void replay(AuditJournal leftover) {
+        try {
+            while (leftover.backlog() > 0 && drainJournal(leftover)) {
+                // keep draining
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not replay the audit journal, it is retried on the next start", e);
+        }
+    }
+
+    // Writes the next batch of journal entries and moves the checkpoint past them. False if the database
+    // could not be reached, in which case the checkpoint stays at the last row that did get written.
+    private boolean drainJournal(AuditJournal source) throws IOException {
+        List<AuditJournal.Entry> entries = source.read(maxBatchSize);
+        if (entries.isEmpty()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> entries.forEach(entry -> insert(entry.audit())));
+            written.increment(entries.size());
+            source.checkpoint(entries.get(entries.size() - 1).end());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Some row itself is bad; write the others one by one and skip only the offenders
+            for (AuditJournal.Entry entry : entries) {
+                entry.audit().setAuditId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(entry.audit()));
+                    written.increment();
+                } catch (DataIntegrityViolationException rowFailure) {
+                    failed.increment();
+                    log.error("Dropping journaled audit row {} {} on {}", entry.audit().getAction(),
+                            entry.audit().getRecordId(), entry.audit().getTableName(), rowFailure);
+                } catch (RuntimeException outage) {
+                    drainRetries.increment();
+                    log.warn("Audit journal drain interrupted, will retry: {}", outage.getMessage());
+                    return false;
+                }
+                source.checkpoint(entry.end());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            drainRetries.increment();
+            log.warn("Audit journal drain failed, will retry: {}", e.getMessage());
+            return false;
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(entries.size());
+        }
+    }
+
+    // Writes the batch, skipping only rows that violate a constraint. False if the database could not be
+    // reached; the rows not yet written are then left in the batch for the caller to retry.
+    private boolean persist(List<AuditTrail> batch) {
+        long start = System.nanoTime();
+        int size = batch.size();
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::insert));
+            written.increment(size);
+            pending.addAndGet(-size);
+            batch.clear();
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Some row itself is bad; write the others one by one and skip only the offenders
+            while (!batch.isEmpty()) {
+                AuditTrail audit = batch.get(0);
+                audit.setAuditId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(audit));
+                    written.increment();
+                } catch (DataIntegrityViolationException rowFailure) {
+                    failed.increment();
+                    log.error("Dropping audit row {} {} on {}", audit.getAction(), audit.getRecordId(),
+                            audit.getTableName(), rowFailure);
+                } catch (RuntimeException outage) {
+                    audit.setAuditId(null);
+                    return retryLater(outage);
+                }
+                batch.remove(0);
+                pending.decrementAndGet();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Ids handed out inside the rolled-back transaction must not be reused
+            batch.forEach(audit -> audit.setAuditId(null));
+            return retryLater(e);
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(size);
+        }
+    }
+
+    private boolean retryLater(RuntimeException outage) {
+        flushRetries.increment();
+        log.warn("Audit flush failed, will retry: {}", outage.getMessage());
+        return false;
+    }
+
+    private void insert(AuditTrail audit) {
+        // The queued row may reference a user loaded by a session that is long closed
+        User changedBy = audit.getChangedBy();
+        if (changedBy != null && changedBy.getUserId() != null) {
+            audit.setChangedBy(entityManager.getReference(User.class, changedBy.getUserId()));
+        }
+        entityManager.persist(audit);
+    }
+}
@@ -17,11 +17,14 @@ import java.util.List;
 public class DepartmentService {
     private final DepartmentRepository departmentRepository;
     private final AuditService auditService;
+    private final EmployeeSearchCache employeeSearchCache;
 
     @Autowired
-    public DepartmentService(DepartmentRepository departmentRepository, AuditService auditService) {
+    public DepartmentService(DepartmentRepository departmentRepository, AuditService auditService,
+                             EmployeeSearchCache employeeSearchCache) {
         this.departmentRepository = departmentRepository;
         this.auditService = auditService;
+        this.employeeSearchCache = employeeSearchCache;
     }
 
     public Department createDepartment(Department department, User currentUser) {
@@ -59,6 +62,10 @@ public class DepartmentService {
         existingDepartment.setDeptName(updatedDepartment.getDeptName());
 
         Department savedDepartment = departmentRepository.save(existingDepartment);
+        // Cached search pages show the department name on every row
+        if (!oldState.getDeptName().equals(savedDepartment.getDeptName())) {
+            employeeSearchCache.invalidateDepartmentAfterCommit(savedDepartment.getDeptId());
+        }
 
         auditService.logActivity(
                 "departments",
@@ -108,8 +115,9 @@ public class DepartmentService {
         }
 
         // Managers can only see their own department
+        // The principal only carries the department id
         if (currentUser.getRole() == UserRole.MANAGER && currentUser.getDepartment() != null) {
-            return List.of(currentUser.getDepartment());
+            return departmentRepository.findById(currentUser.getDepartment().getDeptId()).stream().toList();
         }
 
         return List.of(); // Empty list for other roles
@@ -144,6 +152,7 @@ public class DepartmentService {
         Department copy = new Department();
         copy.setDeptId(department.getDeptId());
         copy.setDeptName(department.getDeptName());
+        copy.setCreatedAt(department.getCreatedAt());
         return copy;
     }
 }
\ No newline at end of file
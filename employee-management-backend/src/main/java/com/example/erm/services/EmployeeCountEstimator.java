@@ -0,0 +1,127 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.repositories.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Estimates search totals from per-filter cardinalities refreshed in the background,
+// assuming filters are independent of each other
+@Component
+public class EmployeeCountEstimator {
+    // Used for substring filters the text index cannot answer
+    private static final double UNKNOWN_SELECTIVITY = 0.1;
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeTextIndex employeeTextIndex;
+    private volatile Statistics statistics;
+
+    @Autowired
+    public EmployeeCountEstimator(EmployeeRepository employeeRepository, EmployeeTextIndex employeeTextIndex) {
+        this.employeeRepository = employeeRepository;
+        this.employeeTextIndex = employeeTextIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${erm.search.estimate.refresh-interval-ms:300000}",
+            initialDelayString = "${erm.search.estimate.refresh-interval-ms:300000}")
+    public void refresh() {
+        long total = 0;
+        Map<Long, Long> byDepartment = new HashMap<>();
+        Map<EmployeeStatus, Long> byStatus = new HashMap<>();
+        Map<String, Long> byDepartmentAndStatus = new HashMap<>();
+        for (Object[] row : employeeRepository.countByDepartmentAndStatus()) {
+            Long deptId = (Long) row[0];
+            EmployeeStatus status = (EmployeeStatus) row[1];
+            long count = (Long) row[2];
+            total += count;
+            byDepartment.merge(deptId, count, Long::sum);
+            byStatus.merge(status, count, Long::sum);
+            byDepartmentAndStatus.put(deptId + ":" + status, count);
+        }
+
+        TreeMap<Integer, Long> byHireYear = new TreeMap<>();
+        for (Object[] row : employeeRepository.countByHireYear()) {
+            byHireYear.put(((Number) row[0]).intValue(), (Long) row[1]);
+        }
+
+        statistics = new Statistics(total, byDepartment, byStatus, byDepartmentAndStatus, byHireYear);
+    }
+
+    // Null until the first refresh has completed
+    public Long estimate(EmployeeSearchCriteria criteria) {
+        Statistics stats = statistics;
+        if (stats == null) {
+            return null;
+        }
+        if (criteria.getEmployeeId() != null) {
+            return 1L;
+        }
+
+        double count;
+        if (criteria.getDepartmentId() != null && criteria.getStatus() != null) {
+            count = stats.byDepartmentAndStatus().getOrDefault(
+                    criteria.getDepartmentId() + ":" + criteria.getStatus(), 0L);
+        } else if (criteria.getDepartmentId() != null) {
+            count = stats.byDepartment().getOrDefault(criteria.getDepartmentId(), 0L);
+        } else if (criteria.getStatus() != null) {
+            count = stats.byStatus().getOrDefault(criteria.getStatus(), 0L);
+        } else {
+            count = stats.total();
+        }
+
+        if (criteria.getHireDateStart() != null || criteria.getHireDateEnd() != null) {
+            count *= hireDateSelectivity(stats, criteria.getHireDateStart(), criteria.getHireDateEnd());
+        }
+        if (criteria.getSearchTerm() != null) {
+            count *= textSelectivity(stats, employeeTextIndex.matchName(criteria.getSearchTerm()));
+        }
+        if (criteria.getJobTitle() != null) {
+            count *= textSelectivity(stats, employeeTextIndex.matchJobTitle(criteria.getJobTitle()));
+        }
+        return Math.round(count);
+    }
+
+    // Share of rows hired within the range, interpolating linearly inside partially covered years
+    private double hireDateSelectivity(Statistics stats, LocalDate start, LocalDate end) {
+        if (stats.total() == 0) {
+            return 0;
+        }
+        double matching = 0;
+        for (Map.Entry<Integer, Long> year : stats.byHireYear().entrySet()) {
+            LocalDate yearStart = LocalDate.of(year.getKey(), 1, 1);
+            LocalDate yearEnd = LocalDate.of(year.getKey(), 12, 31);
+            LocalDate from = start != null && start.isAfter(yearStart) ? start : yearStart;
+            LocalDate to = end != null && end.isBefore(yearEnd) ? end : yearEnd;
+            if (!from.isAfter(to)) {
+                double covered = (to.toEpochDay() - from.toEpochDay() + 1) / (double) yearStart.lengthOfYear();
+                matching += year.getValue() * covered;
+            }
+        }
+        return matching / stats.total();
+    }
+
+    private double textSelectivity(Statistics stats, Set<Long> matches) {
+        if (matches == null) {
+            return UNKNOWN_SELECTIVITY;
+        }
+        return stats.total() == 0 ? 0 : Math.min(1.0, matches.size() / (double) stats.total());
+    }
+
+    private record Statistics(long total,
+                              Map<Long, Long> byDepartment,
+                              Map<EmployeeStatus, Long> byStatus,
+                              Map<String, Long> byDepartmentAndStatus,
+                              TreeMap<Integer, Long> byHireYear) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.dto.ExportFormat;
+import com.example.erm.entities.User;
+import com.example.erm.repositories.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Streams the roster row by row, heap use does not depend on how many employees match
+@Service
+public class EmployeeExportService {
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public EmployeeExportService(EmployeeRepository employeeRepository,
+                                 EmployeeService employeeService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${erm.export.fetch-size:500}") int fetchSize,
+                                 @Value("${erm.export.flush-every:1000}") int flushEvery) {
+        this.employeeRepository = employeeRepository;
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+    }
+
+    // Returns the number of rows written
+    @Transactional(readOnly = true)
+    public long exportEmployees(EmployeeSearchCriteria criteria, ExportFormat format, User currentUser, Writer out)
+            throws IOException {
+        // Managers export their own department only
+        AccessScope scope = AccessScope.of(currentUser);
+        if (criteria.getDepartmentId() != null) {
+            scope.check(criteria.getDepartmentId());
+        }
+
+        EmployeeExportWriter writer = EmployeeExportWriter.create(format, out, objectMapper);
+        writer.begin();
+
+        long written = 0;
+        try (Stream<EmployeeResponseDTO> rows = employeeRepository.streamResponses(
+                employeeService.buildSearchSpecification(criteria, scope), fetchSize)) {
+            Iterator<EmployeeResponseDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++written % flushEvery == 0) {
+                    // Push the chunk to the client and drop anything the session picked up meanwhile
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+        return written;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Writes one export record at a time straight to the response writer, nothing is buffered per row
+abstract class EmployeeExportWriter {
+    static final String[] CSV_COLUMNS = {
+            "empId", "firstName", "lastName", "email", "hireDate", "jobTitle", "salary", "status",
+            "departmentId", "departmentName", "managerId", "managerName"
+    };
+
+    protected final Writer out;
+
+    protected EmployeeExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    static EmployeeExportWriter create(ExportFormat format, Writer out, ObjectMapper objectMapper) {
+        return format == ExportFormat.CSV ? new Csv(out) : new Ndjson(out, objectMapper);
+    }
+
+    void begin() throws IOException {
+    }
+
+    abstract void write(EmployeeResponseDTO employee) throws IOException;
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    static final class Ndjson extends EmployeeExportWriter {
+        private final ObjectMapper objectMapper;
+
+        Ndjson(Writer out, ObjectMapper objectMapper) {
+            super(out);
+            // The mapper must not close the response writer after each value
+            this.objectMapper = objectMapper.copy().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        void write(EmployeeResponseDTO employee) throws IOException {
+            objectMapper.writeValue(out, employee);
+            out.write('\n');
+        }
+    }
+
+    static final class Csv extends EmployeeExportWriter {
+        Csv(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void begin() throws IOException {
+            out.write(String.join(",", CSV_COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        void write(EmployeeResponseDTO employee) throws IOException {
+            Object[] values = {
+                    employee.getEmpId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                    employee.getHireDate(), employee.getJobTitle(), employee.getSalary(), employee.getStatus(),
+                    employee.getDepartmentId(), employee.getDepartmentName(), employee.getManagerId(),
+                    employee.getManagerName()
+            };
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        // RFC 4180 quoting, only when the value needs it
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeDTO;
+import com.example.erm.dto.ExportFormat;
+import com.example.erm.entities.EmployeeStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Pulls one import record at a time from the request body, so only the current chunk is ever held in memory
+abstract class EmployeeImportReader {
+    // A parsed record, or the reasons it could not be parsed; line is the first physical line of the record
+    record Row(int line, EmployeeDTO employee, Map<String, String> errors) {
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+
+    protected final BufferedReader in;
+    protected int lineNumber;
+
+    protected EmployeeImportReader(Reader in) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+    }
+
+    static EmployeeImportReader create(ExportFormat format, Reader in, ObjectMapper objectMapper) throws IOException {
+        return format == ExportFormat.CSV ? new Csv(in) : new Ndjson(in, objectMapper);
+    }
+
+    // Null once the input is exhausted
+    abstract Row next() throws IOException;
+
+    protected String nextNonBlankLine() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            lineNumber++;
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    static final class Ndjson extends EmployeeImportReader {
+        private final ObjectMapper objectMapper;
+
+        Ndjson(Reader in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Row next() throws IOException {
+            String line = nextNonBlankLine();
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new Row(lineNumber, objectMapper.readValue(line, EmployeeDTO.class), Map.of());
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber, null, Map.of("record", e.getOriginalMessage()));
+            }
+        }
+    }
+
+    // RFC 4180 with a header row; columns are matched by name, unknown ones (e.g. empId from an export) are ignored
+    static final class Csv extends EmployeeImportReader {
+        private final List<String> header;
+
+        Csv(Reader in) throws IOException {
+            super(in);
+            String first = nextNonBlankLine();
+            header = first != null ? readRecord(first) : List.of();
+        }
+
+        @Override
+        Row next() throws IOException {
+            String line = nextNonBlankLine();
+            if (line == null) {
+                return null;
+            }
+            int start = lineNumber;
+            List<String> values = readRecord(line);
+
+            EmployeeDTO employee = new EmployeeDTO();
+            Map<String, String> errors = new LinkedHashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                String value = values.get(i);
+                if (!value.isEmpty()) {
+                    set(employee, header.get(i), value, errors);
+                }
+            }
+            return new Row(start, employee, errors);
+        }
+
+        private void set(EmployeeDTO employee, String column, String value, Map<String, String> errors) {
+            try {
+                switch (column) {
+                    case "firstName" -> employee.setFirstName(value);
+                    case "lastName" -> employee.setLastName(value);
+                    case "email" -> employee.setEmail(value);
+                    case "hireDate" -> employee.setHireDate(LocalDate.parse(value));
+                    case "jobTitle" -> employee.setJobTitle(value);
+                    case "salary" -> employee.setSalary(new BigDecimal(value));
+                    case "status" -> employee.setStatus(EmployeeStatus.valueOf(value.toUpperCase(Locale.ROOT)));
+                    case "departmentId" -> employee.setDepartmentId(Long.valueOf(value));
+                    case "managerId" -> employee.setManagerId(Long.valueOf(value));
+                    default -> {
+                    }
+                }
+            } catch (RuntimeException e) {
+                errors.put(column, "Invalid value '" + value + "'");
+            }
+        }
+
+        // A quoted field may span physical lines, in which case more lines are read
+        private List<String> readRecord(String line) throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    String continuation = in.readLine();
+                    lineNumber++;
+                    if (continuation == null) {
+                        break;
+                    }
+                    field.append('\n');
+                    line = continuation;
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
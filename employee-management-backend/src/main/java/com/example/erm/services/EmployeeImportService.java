@@ -0,0 +1,253 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeDTO;
+import com.example.erm.dto.EmployeeImportEvent;
+import com.example.erm.dto.ExportFormat;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.entities.User;
+import com.example.erm.repositories.DepartmentRepository;
+import com.example.erm.repositories.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Bulk import: rows are validated and inserted a chunk at a time, each chunk in its own transaction.
+// Departments and known manager ids are resolved from in-memory sets, emails and unknown manager ids
+// with one set-based query per chunk, and inserts go out as JDBC batches (emp_id_seq is pooled).
+@Service
+public class EmployeeImportService {
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final AuditService auditService;
+    private final EmployeeTextIndex employeeTextIndex;
+    private final EmployeeNameDictionary employeeNameDictionary;
+    private final EmployeeSearchCache employeeSearchCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public EmployeeImportService(EmployeeRepository employeeRepository,
+                                 DepartmentRepository departmentRepository,
+                                 AuditService auditService,
+                                 EmployeeTextIndex employeeTextIndex,
+                                 EmployeeNameDictionary employeeNameDictionary,
+                                 EmployeeSearchCache employeeSearchCache,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${erm.import.chunk-size:500}") int chunkSize) {
+        this.employeeRepository = employeeRepository;
+        this.departmentRepository = departmentRepository;
+        this.auditService = auditService;
+        this.employeeTextIndex = employeeTextIndex;
+        this.employeeNameDictionary = employeeNameDictionary;
+        this.employeeSearchCache = employeeSearchCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Oracle rejects IN lists longer than 1000 elements
+        this.chunkSize = Math.max(1, Math.min(chunkSize, 1000));
+    }
+
+    // Writes NDJSON events to out: one per rejected row, a progress line per chunk and a final summary
+    public EmployeeImportEvent importEmployees(ExportFormat format, Reader in, User currentUser, Writer out)
+            throws IOException {
+        try {
+            EmployeeImportEvent summary = importEmployees(format, in, currentUser, event -> write(event, out));
+            write(summary, out);
+            return summary;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    EmployeeImportEvent importEmployees(ExportFormat format, Reader in, User currentUser,
+                                        Consumer<EmployeeImportEvent> listener) throws IOException {
+        EmployeeImportReader reader = EmployeeImportReader.create(format, in, objectMapper);
+        ImportState state = new ImportState(new HashSet<>(departmentRepository.findAllIds()));
+
+        List<EmployeeImportReader.Row> chunk = new ArrayList<>(chunkSize);
+        EmployeeImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, state, currentUser, listener);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, state, currentUser, listener);
+        }
+        return EmployeeImportEvent.summary(state.processed, state.imported, state.failed);
+    }
+
+    private void importChunk(List<EmployeeImportReader.Row> chunk, ImportState state, User currentUser,
+                             Consumer<EmployeeImportEvent> listener) {
+        List<String> emails = chunk.stream().filter(EmployeeImportReader.Row::isValid)
+                .map(row -> row.employee().getEmail())
+                .filter(email -> email != null)
+                .toList();
+        Set<String> existingEmails = emails.isEmpty()
+                ? Set.of()
+                : new HashSet<>(employeeRepository.findExistingEmails(emails));
+        List<Long> unknownManagers = chunk.stream().filter(EmployeeImportReader.Row::isValid)
+                .map(row -> row.employee().getManagerId())
+                .filter(id -> id != null && !state.knownEmployeeIds.contains(id))
+                .distinct().toList();
+        if (!unknownManagers.isEmpty()) {
+            state.knownEmployeeIds.addAll(employeeRepository.findExistingIds(unknownManagers));
+        }
+
+        // Earlier chunks have committed by now, so existingEmails covers them and only duplicates within
+        // this chunk need tracking here
+        Set<String> chunkEmails = new HashSet<>();
+        List<EmployeeImportReader.Row> accepted = new ArrayList<>(chunk.size());
+        for (EmployeeImportReader.Row row : chunk) {
+            Map<String, String> errors = validate(row, existingEmails, chunkEmails, state);
+            if (errors.isEmpty()) {
+                chunkEmails.add(row.employee().getEmail());
+                accepted.add(row);
+            } else {
+                state.failed++;
+                listener.accept(EmployeeImportEvent.error(row.line(), errors));
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(accepted, currentUser));
+                state.imported += accepted.size();
+            } catch (RuntimeException e) {
+                // The whole chunk rolled back, report every row it contained
+                state.failed += accepted.size();
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (EmployeeImportReader.Row row : accepted) {
+                    listener.accept(EmployeeImportEvent.error(row.line(),
+                            Map.of("record", message != null ? message : e.getClass().getSimpleName())));
+                }
+            } finally {
+                entityManager.clear();
+            }
+        }
+
+        state.processed += chunk.size();
+        listener.accept(EmployeeImportEvent.progress(state.processed, state.imported, state.failed));
+    }
+
+    private void write(EmployeeImportEvent event, Writer out) {
+        try {
+            out.write(objectMapper.writeValueAsString(event));
+            out.write('\n');
+            if (!EmployeeImportEvent.ERROR.equals(event.getType())) {
+                // Progress reaches the client as each chunk commits
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, String> validate(EmployeeImportReader.Row row, Set<String> existingEmails, Set<String> chunkEmails,
+                                         ImportState state) {
+        if (!row.isValid()) {
+            return row.errors();
+        }
+        EmployeeDTO employee = row.employee();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<EmployeeDTO> violation : validator.validate(employee)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (employee.getEmail() != null
+                && (existingEmails.contains(employee.getEmail()) || chunkEmails.contains(employee.getEmail()))) {
+            errors.putIfAbsent("email", "Email already exists");
+        }
+        if (employee.getDepartmentId() != null && !state.departmentIds.contains(employee.getDepartmentId())) {
+            errors.putIfAbsent("departmentId", "Department not found");
+        }
+        if (employee.getManagerId() != null && !state.knownEmployeeIds.contains(employee.getManagerId())) {
+            errors.putIfAbsent("managerId", "Manager not found");
+        }
+        return errors;
+    }
+
+    private void insert(List<EmployeeImportReader.Row> rows, User currentUser) {
+        User createdBy = entityManager.getReference(User.class, currentUser.getUserId());
+        List<Employee> saved = new ArrayList<>(rows.size());
+        for (EmployeeImportReader.Row row : rows) {
+            Employee employee = toEntity(row.employee());
+            employee.setCreatedBy(createdBy);
+            entityManager.persist(employee);
+            saved.add(employee);
+        }
+        // Employees first so the hibernate.jdbc.batch_size batches are not interleaved with audit rows
+        entityManager.flush();
+
+        Set<List<Object>> touched = new HashSet<>();
+        for (Employee employee : saved) {
+            auditService.logActivity("employees", employee.getEmpId(), "CREATE", null, employee, createdBy);
+            employeeTextIndex.indexAfterCommit(employee);
+            employeeNameDictionary.indexAfterCommit(employee);
+            Long deptId = employee.getDepartment() != null ? employee.getDepartment().getDeptId() : null;
+            if (touched.add(Arrays.asList(deptId, employee.getStatus()))) {
+                employeeSearchCache.invalidateAfterCommit(null, null, deptId, employee.getStatus());
+            }
+        }
+        entityManager.flush();
+    }
+
+    private Employee toEntity(EmployeeDTO dto) {
+        Employee employee = new Employee();
+        employee.setFirstName(dto.getFirstName());
+        employee.setLastName(dto.getLastName());
+        employee.setEmail(dto.getEmail());
+        employee.setHireDate(dto.getHireDate());
+        employee.setJobTitle(dto.getJobTitle());
+        employee.setSalary(dto.getSalary());
+        employee.setStatus(dto.getStatus() != null ? dto.getStatus() : EmployeeStatus.ACTIVE);
+        employee.setDepartment(departmentRepository.getReferenceById(dto.getDepartmentId()));
+        if (dto.getManagerId() != null) {
+            employee.setManager(employeeRepository.getReferenceById(dto.getManagerId()));
+        }
+        return employee;
+    }
+
+    // Per-import lookups; grows with the number of distinct manager ids referenced, not with row count
+    private static final class ImportState {
+        private final Set<Long> departmentIds;
+        private final Set<Long> knownEmployeeIds = new HashSet<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private ImportState(Set<Long> departmentIds) {
+            this.departmentIds = departmentIds;
+        }
+    }
+}
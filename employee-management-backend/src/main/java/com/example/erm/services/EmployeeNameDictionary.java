@@ -0,0 +1,148 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeSuggestionDTO;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.repositories.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Sorted lowercase-name dictionary for type-ahead. Each active employee is keyed under
+// "first last" and "last first" so either name can be typed first.
+@Component
+public class EmployeeNameDictionary {
+    private static final char ID_SEPARATOR = '\u0000';
+    private static final char MAX_CHAR = '\uFFFF';
+
+    private final EmployeeRepository employeeRepository;
+
+    private volatile ConcurrentSkipListMap<String, EmployeeSuggestionDTO> all = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, ConcurrentSkipListMap<String, EmployeeSuggestionDTO>> byDepartment = new ConcurrentHashMap<>();
+    private volatile Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private List<Employee> pendingDuringRebuild;
+
+    @Autowired
+    public EmployeeNameDictionary(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        List<Object[]> rows = employeeRepository.findAllNameEntries();
+
+        synchronized (this) {
+            all = new ConcurrentSkipListMap<>();
+            byDepartment = new ConcurrentHashMap<>();
+            byId = new ConcurrentHashMap<>();
+            for (Object[] row : rows) {
+                if (row[4] != EmployeeStatus.INACTIVE) {
+                    add(new EmployeeSuggestionDTO((Long) row[0], row[1] + " " + row[2], (Long) row[3]), (String) row[1], (String) row[2]);
+                }
+            }
+            pendingDuringRebuild.forEach(this::apply);
+            pendingDuringRebuild = null;
+        }
+    }
+
+    public void indexAfterCommit(Employee employee) {
+        Employee snapshot = new Employee();
+        snapshot.setEmpId(employee.getEmpId());
+        snapshot.setFirstName(employee.getFirstName());
+        snapshot.setLastName(employee.getLastName());
+        snapshot.setStatus(employee.getStatus());
+        snapshot.setDepartment(employee.getDepartment());
+
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                apply(snapshot);
+                if (pendingDuringRebuild != null) {
+                    pendingDuringRebuild.add(snapshot);
+                }
+            }
+        });
+    }
+
+    // Walks the sorted range [prefix, prefix + MAX_CHAR) and stops after limit distinct employees
+    public List<EmployeeSuggestionDTO> suggest(String prefix, int limit, Long departmentId) {
+        ConcurrentSkipListMap<String, EmployeeSuggestionDTO> source = departmentId == null
+                ? all
+                : byDepartment.get(departmentId);
+        if (source == null) {
+            return List.of();
+        }
+
+        String from = normalize(prefix);
+        ConcurrentNavigableMap<String, EmployeeSuggestionDTO> range = source.subMap(from, true, from + MAX_CHAR, false);
+
+        Map<Long, EmployeeSuggestionDTO> results = new LinkedHashMap<>();
+        for (EmployeeSuggestionDTO suggestion : range.values()) {
+            results.putIfAbsent(suggestion.getEmpId(), suggestion);
+            if (results.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    private void apply(Employee employee) {
+        remove(employee.getEmpId());
+        if (employee.getStatus() != EmployeeStatus.INACTIVE) {
+            Long deptId = employee.getDepartment() != null ? employee.getDepartment().getDeptId() : null;
+            add(new EmployeeSuggestionDTO(employee.getEmpId(),
+                    employee.getFirstName() + " " + employee.getLastName(), deptId),
+                    employee.getFirstName(), employee.getLastName());
+        }
+    }
+
+    private void add(EmployeeSuggestionDTO suggestion, String firstName, String lastName) {
+        List<String> keys = keys(suggestion.getEmpId(), firstName, lastName);
+        byId.put(suggestion.getEmpId(), new Entry(suggestion, keys));
+        for (String key : keys) {
+            all.put(key, suggestion);
+            if (suggestion.getDepartmentId() != null) {
+                byDepartment.computeIfAbsent(suggestion.getDepartmentId(), k -> new ConcurrentSkipListMap<>())
+                        .put(key, suggestion);
+            }
+        }
+    }
+
+    private void remove(Long empId) {
+        Entry previous = byId.remove(empId);
+        if (previous == null) {
+            return;
+        }
+        Long deptId = previous.suggestion().getDepartmentId();
+        for (String key : previous.keys()) {
+            all.remove(key);
+            if (deptId != null) {
+                Map<String, EmployeeSuggestionDTO> department = byDepartment.get(deptId);
+                if (department != null) {
+                    department.remove(key);
+                }
+            }
+        }
+    }
+
+    private static List<String> keys(Long empId, String firstName, String lastName) {
+        return List.of(
+                normalize(firstName + " " + lastName) + ID_SEPARATOR + empId,
+                normalize(lastName + " " + firstName) + ID_SEPARATOR + empId);
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(EmployeeSuggestionDTO suggestion, List<String> keys) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.dto.PageSlice;
+import com.example.erm.dto.TotalMode;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.entities.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Bounded LRU + TTL cache of mapped search pages. Employee writes drop only the entries whose
+// department/status filters could include the changed row. Pages also embed department and manager
+// names, so a department rename drops that department's pages and a manager rename drops them all.
+@Component
+public class EmployeeSearchCache {
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped on every invalidation so a search that raced with a write does not store a stale page
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public EmployeeSearchCache(@Value("${erm.search.cache.enabled:true}") boolean enabled,
+                               @Value("${erm.search.cache.max-entries:1000}") int maxEntries,
+                               @Value("${erm.search.cache.ttl:60s}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+
+        FunctionCounter.builder("erm.search.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("erm.search.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("erm.search.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("erm.search.cache.invalidations", invalidations, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("erm.search.cache.size", this, EmployeeSearchCache::size).register(meterRegistry);
+    }
+
+    public PageSlice<EmployeeResponseDTO> get(EmployeeSearchCriteria criteria, User currentUser,
+                                              Supplier<PageSlice<EmployeeResponseDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = keyFor(criteria, currentUser);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.createdAt < ttlNanos) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long generationAtLoad = generation.get();
+        PageSlice<EmployeeResponseDTO> value = loader.get();
+
+        synchronized (entries) {
+            if (generation.get() == generationAtLoad) {
+                entries.put(key, new Entry(value, criteria.getDepartmentId(), criteria.getStatus(), now));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+
+    // Invalidates after commit, for both the old and the new department/status of the changed row
+    public void invalidateAfterCommit(Long oldDeptId, EmployeeStatus oldStatus, Long newDeptId, EmployeeStatus newStatus) {
+        invalidateAfterCommit(entry -> entry.mayContain(oldDeptId, oldStatus) || entry.mayContain(newDeptId, newStatus));
+    }
+
+    // Every page that may list an employee of the department, in any status
+    public void invalidateDepartmentAfterCommit(Long deptId) {
+        invalidateAfterCommit(entry -> entry.deptId() == null || entry.deptId().equals(deptId));
+    }
+
+    // A manager's reports can sit in any department or status
+    public void invalidateAllAfterCommit() {
+        invalidateAfterCommit(entry -> true);
+    }
+
+    private void invalidateAfterCommit(Predicate<Entry> affected) {
+        if (!enabled) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                Iterator<Entry> iterator = entries.values().iterator();
+                while (iterator.hasNext()) {
+                    if (affected.test(iterator.next())) {
+                        iterator.remove();
+                        invalidations.incrementAndGet();
+                    }
+                }
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Canonical form: defaults filled in, substring terms lowercased (matching is case-insensitive anyway),
+    // plus the caller's access scope
+    static String keyFor(EmployeeSearchCriteria criteria, User currentUser) {
+        return String.join("|",
+                AccessScope.of(currentUser).key(),
+                String.valueOf(criteria.getEmployeeId()),
+                normalize(criteria.getSearchTerm()),
+                String.valueOf(criteria.getDepartmentId()),
+                normalize(criteria.getJobTitle()),
+                String.valueOf(criteria.getStatus()),
+                String.valueOf(criteria.getHireDateStart()),
+                String.valueOf(criteria.getHireDateEnd()),
+                String.valueOf(criteria.getPage() != null ? criteria.getPage() : 0),
+                String.valueOf(criteria.getSize() != null ? criteria.getSize() : 10),
+                criteria.getSortBy() != null ? criteria.getSortBy() : "empId",
+                criteria.getSortDirection() != null ? criteria.getSortDirection().toUpperCase(Locale.ROOT) : "ASC",
+                String.valueOf(criteria.getWithTotal() != null ? criteria.getWithTotal() : TotalMode.EXACT));
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "null" : term.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(PageSlice<EmployeeResponseDTO> value, Long deptId, EmployeeStatus status, long createdAt) {
+        boolean mayContain(Long rowDeptId, EmployeeStatus rowStatus) {
+            return (deptId == null || Objects.equals(deptId, rowDeptId))
+                    && (status == null || status == rowStatus);
+        }
+    }
+}
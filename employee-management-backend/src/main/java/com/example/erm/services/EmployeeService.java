@@ -1,36 +1,95 @@
 package com.example.erm.services;
 
 
+import com.example.erm.dto.CursorSlice;
+import com.example.erm.dto.EmployeeDTO;
+import com.example.erm.dto.EmployeeBatchResult;
+import com.example.erm.dto.EmployeeChangeDTO;
+import com.example.erm.dto.EmployeeResponseDTO;
 import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.dto.EmployeeSearchCursor;
+import com.example.erm.dto.EmployeeSuggestionDTO;
+import com.example.erm.dto.EntityTags;
+import com.example.erm.dto.PageSlice;
+import com.example.erm.dto.TotalMode;
 import com.example.erm.entities.*;
 import com.example.erm.exceptions.AccessDeniedException;
+import com.example.erm.exceptions.PreconditionFailedException;
 import com.example.erm.exceptions.ResourceNotFoundException;
+import com.example.erm.exceptions.ValidationException;
 import com.example.erm.repositories.DepartmentRepository;
 import com.example.erm.repositories.EmployeeRepository;
+import com.example.erm.repositories.EmployeeSpecifications;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class EmployeeService {
+    // Every id list of a batch goes into a single IN list, and Oracle rejects more than 1000 elements
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "email", "hireDate",
+            "jobTitle", "salary", "departmentId", "managerId", "status");
+
     private final EmployeeRepository employeeRepository;
     private final DepartmentRepository departmentRepository;
     private final AuditService auditService;
+    private final EmployeeTextIndex employeeTextIndex;
+    private final EmployeeNameDictionary employeeNameDictionary;
+    private final EmployeeCountEstimator employeeCountEstimator;
+    private final EmployeeSearchCache employeeSearchCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int maxSliceSize;
 
     @Autowired
     public EmployeeService(EmployeeRepository employeeRepository,
                            DepartmentRepository departmentRepository,
-                           AuditService auditService) {
+                           AuditService auditService,
+                           EmployeeTextIndex employeeTextIndex,
+                           EmployeeNameDictionary employeeNameDictionary,
+                           EmployeeCountEstimator employeeCountEstimator,
+                           EmployeeSearchCache employeeSearchCache,
+                           Validator validator,
+                           ObjectMapper objectMapper,
+                           @Value("${erm.search.keyset.max-size:500}") int maxSliceSize) {
         this.employeeRepository = employeeRepository;
         this.departmentRepository = departmentRepository;
         this.auditService = auditService;
+        this.employeeTextIndex = employeeTextIndex;
+        this.employeeNameDictionary = employeeNameDictionary;
+        this.employeeCountEstimator = employeeCountEstimator;
+        this.employeeSearchCache = employeeSearchCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.maxSliceSize = maxSliceSize;
     }
     @Transactional
     public Employee createEmployee(Employee employee, User currentUser) {
@@ -50,13 +109,19 @@ public class EmployeeService {
                 savedEmployee,
                 currentUser
         );
+        employeeTextIndex.indexAfterCommit(savedEmployee);
+        employeeNameDictionary.indexAfterCommit(savedEmployee);
+        employeeSearchCache.invalidateAfterCommit(null, null, deptIdOf(savedEmployee), savedEmployee.getStatus());
 
         return savedEmployee;
     }
+    // ifMatch, when given, must carry the ETag of the current state; @Version catches writes that
+    // commit between that check and this one
     @Transactional
-    public Employee updateEmployee(Long empId, Employee updatedEmployee, User currentUser) {
-        Employee existingEmployee = employeeRepository.findById(empId)
+    public Employee updateEmployee(Long empId, Employee updatedEmployee, User currentUser, String ifMatch) {
+        Employee existingEmployee = employeeRepository.findDetailByEmpId(empId)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + empId));
+        checkPrecondition(existingEmployee, ifMatch);
 
         validateUserPermissions(currentUser, existingEmployee.getDepartment().getDeptId());
         validateEmployeeData(updatedEmployee, "UPDATE");
@@ -78,16 +143,283 @@ public class EmployeeService {
                 savedEmployee,
                 currentUser
         );
+        employeeTextIndex.indexAfterCommit(savedEmployee);
+        employeeNameDictionary.indexAfterCommit(savedEmployee);
+        invalidateSearchPages(oldState, savedEmployee);
 
         return savedEmployee;
     }
+    // JSON Merge Patch (RFC 7386) over the flat EmployeeDTO: absent fields are left alone, null clears one.
+    // Only the fields present are validated, references are looked up only when they change, and the
+    // UPDATE lists just the columns whose value differs.
     @Transactional
-    public void deleteEmployee(Long empId, User currentUser) {
-        Employee employee = employeeRepository.findById(empId)
+    public Employee patchEmployee(Long empId, JsonNode patch, User currentUser, String ifMatch) {
+        if (patch == null || !patch.isObject()) {
+            throw new ValidationException("Invalid merge patch", Map.of("body", "Must be a JSON object"));
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (String field : fields) {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                errors.put(field, "Field cannot be patched");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Invalid merge patch", errors);
+        }
+        EmployeeDTO values;
+        try {
+            values = objectMapper.treeToValue(patch, EmployeeDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Invalid merge patch", Map.of("body", e.getOriginalMessage()));
+        }
+
+        Employee existingEmployee = employeeRepository.findDetailByEmpId(empId)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + empId));
+        checkPrecondition(existingEmployee, ifMatch);
+        validateUserPermissions(currentUser, deptIdOf(existingEmployee));
+
+        Long managerId = existingEmployee.getManager() != null ? existingEmployee.getManager().getEmpId() : null;
+        boolean departmentChanged = fields.contains("departmentId")
+                && !Objects.equals(values.getDepartmentId(), deptIdOf(existingEmployee));
+        boolean managerChanged = fields.contains("managerId") && !Objects.equals(values.getManagerId(), managerId);
+
+        for (String field : fields) {
+            for (ConstraintViolation<EmployeeDTO> violation : validator.validateProperty(values, field)) {
+                errors.putIfAbsent(field, violation.getMessage());
+            }
+        }
+        if (fields.contains("status") && values.getStatus() == null) {
+            errors.putIfAbsent("status", "Status must not be null");
+        }
+        if (fields.contains("email") && values.getEmail() != null && !values.getEmail().equals(existingEmployee.getEmail())
+                && employeeRepository.existsByEmail(values.getEmail())) {
+            errors.putIfAbsent("email", "Email already exists");
+        }
+        if (departmentChanged && values.getDepartmentId() != null) {
+            validateUserPermissions(currentUser, values.getDepartmentId());
+            if (!departmentRepository.existsById(values.getDepartmentId())) {
+                errors.putIfAbsent("departmentId", "Department not found");
+            }
+        }
+        if (managerChanged && values.getManagerId() != null) {
+            if (values.getManagerId().equals(empId)) {
+                errors.putIfAbsent("managerId", "Self-reference not allowed");
+            } else if (!employeeRepository.existsById(values.getManagerId())) {
+                errors.putIfAbsent("managerId", "Manager not found");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Invalid employee patch", errors);
+        }
+
+        Employee oldState = copyEmployeeState(existingEmployee);
+        // The scalar fields share their names between EmployeeDTO and Employee
+        BeanWrapper target = PropertyAccessorFactory.forBeanPropertyAccess(existingEmployee);
+        BeanWrapper patched = PropertyAccessorFactory.forBeanPropertyAccess(values);
+        Set<String> attributes = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field.equals("departmentId") || field.equals("managerId")) {
+                continue;
+            }
+            Object value = patched.getPropertyValue(field);
+            if (!Objects.equals(target.getPropertyValue(field), value)) {
+                target.setPropertyValue(field, value);
+                attributes.add(field);
+            }
+        }
+        if (departmentChanged) {
+            existingEmployee.setDepartment(departmentRepository.getReferenceById(values.getDepartmentId()));
+            attributes.add("department");
+        }
+        if (managerChanged) {
+            existingEmployee.setManager(values.getManagerId() != null
+                    ? employeeRepository.getReferenceById(values.getManagerId())
+                    : null);
+            attributes.add("manager");
+        }
+        if (attributes.isEmpty()) {
+            return existingEmployee;
+        }
+        existingEmployee.setUpdatedBy(currentUser);
+        existingEmployee.setUpdatedAt(LocalDateTime.now());
+        attributes.add("updatedBy");
+        attributes.add("updatedAt");
+
+        employeeRepository.updateAttributes(existingEmployee, attributes);
+
+        auditService.logActivity(
+                "employees",
+                existingEmployee.getEmpId(),
+                "UPDATE",
+                oldState,
+                existingEmployee,
+                currentUser
+        );
+        employeeTextIndex.indexAfterCommit(existingEmployee);
+        employeeNameDictionary.indexAfterCommit(existingEmployee);
+        invalidateSearchPages(oldState, existingEmployee);
+
+        return existingEmployee;
+    }
+
+    // Accepted items are applied together in this transaction, rejected ones are reported and left untouched.
+    // Targets, departments, managers and emails are each resolved with one set-based query, then the
+    // employee updates are flushed as JDBC batches ahead of the audit rows.
+    @Transactional
+    public List<EmployeeBatchResult> updateEmployees(List<EmployeeChangeDTO> changes, User currentUser) {
+        if (changes == null || changes.isEmpty() || changes.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Invalid batch size",
+                    Map.of("changes", "Must contain between 1 and " + MAX_BATCH_SIZE + " items"));
+        }
+        int missing = changes.indexOf(null);
+        if (missing >= 0) {
+            throw new ValidationException("Invalid batch item",
+                    Map.of("changes[" + missing + "]", "Must not be null"));
+        }
+
+        Set<Long> ids = changes.stream().map(EmployeeChangeDTO::getEmpId).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Employee> targets = new HashMap<>();
+        for (Employee employee : employeeRepository.findAllById(ids)) {
+            targets.put(employee.getEmpId(), employee);
+        }
+        BatchLookups lookups = new BatchLookups(targets, changes);
+
+        List<EmployeeBatchResult> results = new ArrayList<>(changes.size());
+        List<AppliedChange> applied = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            EmployeeChangeDTO change = changes.get(i);
+            Map<String, String> errors = validateChange(change, currentUser, lookups);
+            if (!errors.isEmpty()) {
+                results.add(EmployeeBatchResult.rejected(i, change.getEmpId(), errors));
+                continue;
+            }
+            Employee employee = targets.get(change.getEmpId());
+            Employee oldState = copyEmployeeState(employee);
+            applyChange(employee, change, targets);
+            employee.setUpdatedBy(currentUser);
+            applied.add(new AppliedChange(oldState, employee));
+            results.add(EmployeeBatchResult.updated(i, change.getEmpId()));
+        }
+        if (applied.isEmpty()) {
+            return results;
+        }
+
+        // Employees first so the hibernate.jdbc.batch_size batches are not interleaved with audit rows
+        employeeRepository.flush();
+
+        Set<List<Object>> touched = new HashSet<>();
+        boolean renamed = false;
+        for (AppliedChange change : applied) {
+            Employee oldState = change.oldState();
+            Employee employee = change.employee();
+            auditService.logActivity("employees", employee.getEmpId(), "UPDATE", oldState, employee, currentUser);
+            employeeTextIndex.indexAfterCommit(employee);
+            employeeNameDictionary.indexAfterCommit(employee);
+            if (touched.add(Arrays.asList(deptIdOf(oldState), oldState.getStatus(),
+                    deptIdOf(employee), employee.getStatus()))) {
+                employeeSearchCache.invalidateAfterCommit(deptIdOf(oldState), oldState.getStatus(),
+                        deptIdOf(employee), employee.getStatus());
+            }
+            renamed |= nameChanged(oldState, employee);
+        }
+        if (renamed) {
+            employeeSearchCache.invalidateAllAfterCommit();
+        }
+        return results;
+    }
+
+    private Map<String, String> validateChange(EmployeeChangeDTO change, User currentUser, BatchLookups lookups) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<EmployeeChangeDTO> violation : validator.validate(change)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+
+        Employee target = lookups.targets.get(change.getEmpId());
+        if (target == null) {
+            return Map.of("empId", "Employee not found");
+        }
+        if (!lookups.seenIds.add(change.getEmpId())) {
+            return Map.of("empId", "Employee appears more than once in the batch");
+        }
+        if (change.getVersion() != null && !change.getVersion().equals(target.getVersion())) {
+            return Map.of("version", "Employee was modified since version " + change.getVersion());
+        }
+        try {
+            validateUserPermissions(currentUser, deptIdOf(target));
+            if (change.getDepartmentId() != null) {
+                validateUserPermissions(currentUser, change.getDepartmentId());
+            }
+        } catch (AccessDeniedException e) {
+            return Map.of("empId", e.getMessage());
+        }
+
+        String email = change.getEmail();
+        boolean newEmail = email != null && !email.equals(target.getEmail());
+        if (newEmail && (lookups.existingEmails.contains(email) || lookups.seenEmails.contains(email))) {
+            errors.put("email", "Email already exists");
+        }
+        if (change.getDepartmentId() != null && !lookups.departmentIds.contains(change.getDepartmentId())) {
+            errors.put("departmentId", "Department not found");
+        }
+        if (change.getManagerId() != null) {
+            if (change.getManagerId().equals(change.getEmpId())) {
+                errors.put("managerId", "Self-reference not allowed");
+            } else if (!lookups.employeeIds.contains(change.getManagerId())) {
+                errors.put("managerId", "Manager not found");
+            }
+        }
+        if (errors.isEmpty() && newEmail) {
+            lookups.seenEmails.add(email);
+        }
+        return errors;
+    }
+
+    private void applyChange(Employee employee, EmployeeChangeDTO change, Map<Long, Employee> targets) {
+        if (change.getFirstName() != null) {
+            employee.setFirstName(change.getFirstName());
+        }
+        if (change.getLastName() != null) {
+            employee.setLastName(change.getLastName());
+        }
+        if (change.getEmail() != null) {
+            employee.setEmail(change.getEmail());
+        }
+        if (change.getJobTitle() != null) {
+            employee.setJobTitle(change.getJobTitle());
+        }
+        if (change.getSalary() != null) {
+            employee.setSalary(change.getSalary());
+        }
+        if (change.getStatus() != null) {
+            employee.setStatus(change.getStatus());
+        }
+        // Unloaded references, existence was checked against the batch lookups
+        if (change.getDepartmentId() != null) {
+            employee.setDepartment(departmentRepository.getReferenceById(change.getDepartmentId()));
+        }
+        if (change.getManagerId() != null) {
+            Employee manager = targets.get(change.getManagerId());
+            employee.setManager(manager != null ? manager : employeeRepository.getReferenceById(change.getManagerId()));
+        }
+    }
+
+    @Transactional
+    public void deleteEmployee(Long empId, User currentUser, String ifMatch) {
+        Employee employee = employeeRepository.findAuditSnapshotByEmpId(empId)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + empId));
+        checkPrecondition(employee, ifMatch);
 
         validateUserPermissions(currentUser, employee.getDepartment().getDeptId());
 
+        EmployeeStatus previousStatus = employee.getStatus();
+        Employee oldState = copyEmployeeState(employee);
+
         // Soft delete by setting status to INACTIVE
         employee.setStatus(EmployeeStatus.INACTIVE);
         employee.setUpdatedBy(currentUser);
@@ -98,41 +430,220 @@ public class EmployeeService {
                 "employees",
                 savedEmployee.getEmpId(),
                 "DELETE",
-                employee,
+                oldState,
                 savedEmployee,
                 currentUser
         );
+        // Soft delete keeps the row searchable by status, so the entry stays indexed
+        employeeTextIndex.indexAfterCommit(savedEmployee);
+        employeeNameDictionary.indexAfterCommit(savedEmployee);
+        employeeSearchCache.invalidateAfterCommit(deptIdOf(savedEmployee), previousStatus,
+                deptIdOf(savedEmployee), savedEmployee.getStatus());
     }
 
-    public Employee getEmployee(Long empId, User currentUser) {
-        Employee employee = employeeRepository.findById(empId)
+    @Transactional(readOnly = true)
+    public EmployeeResponseDTO getEmployee(Long empId, User currentUser) {
+        EmployeeResponseDTO employee = employeeRepository.findResponseById(empId)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + empId));
 
-        validateUserPermissions(currentUser, employee.getDepartment().getDeptId());
+        validateUserPermissions(currentUser, employee.getDepartmentId());
         return employee;
     }
 
-    @Transactional
-    public Page<Employee> searchEmployees(EmployeeSearchCriteria criteria, User currentUser) {
-        // Validate department access if specified
+    @Transactional(readOnly = true)
+    public List<EmployeeSuggestionDTO> suggestEmployees(String prefix, int limit, User currentUser) {
+        // Managers only get suggestions from their own department
+        AccessScope scope = AccessScope.of(currentUser);
+        if (scope.isRestricted() && scope.departmentId() == null) {
+            return List.of();
+        }
+        return employeeNameDictionary.suggest(prefix, limit, scope.departmentId());
+    }
+
+    // Served from the search cache when an equivalent query was answered recently
+    @Transactional(readOnly = true)
+    public PageSlice<EmployeeResponseDTO> searchEmployees(EmployeeSearchCriteria criteria, User currentUser) {
+        // Validate department access if specified, before the cache so a cached page never bypasses it
+        AccessScope scope = AccessScope.of(currentUser);
         if (criteria.getDepartmentId() != null) {
-            validateUserPermissions(currentUser, criteria.getDepartmentId());
+            scope.check(criteria.getDepartmentId());
         }
 
         // Create pageable for pagination and sorting
         Pageable pageable = createPageable(criteria);
 
-        // Perform search with all criteria
-        return employeeRepository.searchEmployees(
-                criteria.getEmployeeId(),
-                criteria.getSearchTerm(),
-                criteria.getDepartmentId(),
-                criteria.getJobTitle(),
-                criteria.getStatus(),
-                criteria.getHireDateStart(),
-                criteria.getHireDateEnd(),
-                pageable
-        );
+        // Cached and estimated under the department the scope confines the query to
+        EmployeeSearchCriteria scoped = scope.narrow(criteria);
+        return employeeSearchCache.get(scoped, currentUser,
+                () -> findPage(buildSearchSpecification(criteria, scope), pageable, scoped));
+    }
+
+    // EXACT runs the usual COUNT, FALSE and ESTIMATE only fetch one extra row to learn hasNext
+    protected PageSlice<EmployeeResponseDTO> findPage(Specification<Employee> spec, Pageable pageable,
+                                                      EmployeeSearchCriteria criteria) {
+        TotalMode mode = criteria.getWithTotal() != null ? criteria.getWithTotal() : TotalMode.EXACT;
+        if (mode == TotalMode.EXACT) {
+            return PageSlice.of(employeeRepository.findResponsePage(spec, pageable));
+        }
+
+        Slice<EmployeeResponseDTO> slice = employeeRepository.findResponseSlice(spec, pageable);
+        if (mode == TotalMode.FALSE) {
+            return PageSlice.of(slice, null, false);
+        }
+
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            // Last page reached, so the total is known without counting
+            return PageSlice.of(slice, seen, false);
+        }
+
+        Long estimate = employeeCountEstimator.estimate(criteria);
+        if (estimate == null) {
+            // Statistics not loaded yet
+            return PageSlice.of(slice, employeeRepository.count(spec), false);
+        }
+        return PageSlice.of(slice, Math.max(estimate, slice.hasNext() ? seen + 1 : seen), true);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSlice<EmployeeResponseDTO> searchEmployeesAfter(EmployeeSearchCriteria criteria, User currentUser) {
+        // Validate department access if specified
+        AccessScope scope = AccessScope.of(currentUser);
+        if (criteria.getDepartmentId() != null) {
+            scope.check(criteria.getDepartmentId());
+        }
+
+        int size = criteria.getSize() != null ? criteria.getSize() : 10;
+        if (size < 1 || size > maxSliceSize) {
+            throw new ValidationException("Invalid page size",
+                    Map.of("size", "Must be between 1 and " + maxSliceSize));
+        }
+        String sortBy = criteria.getSortBy() != null ? criteria.getSortBy() : "empId";
+        Sort.Direction direction = Sort.Direction.fromString(
+                criteria.getSortDirection() != null ? criteria.getSortDirection() : "ASC");
+
+        if (!EmployeeSearchCursor.SORTABLE_FIELDS.contains(sortBy)) {
+            throw new ValidationException("Unsupported sort field for cursor pagination",
+                    Map.of("sortBy", "Must be one of " + EmployeeSearchCursor.SORTABLE_FIELDS));
+        }
+
+        EmployeeSearchCursor after = null;
+        if (criteria.getAfter() != null && !criteria.getAfter().isBlank()) {
+            after = EmployeeSearchCursor.decode(criteria.getAfter());
+            if (!after.getSortBy().equals(sortBy) || !after.getSortDirection().equals(direction.name())) {
+                throw new ValidationException("Cursor does not match the requested sort",
+                        Map.of("after", "Cursor was issued for a different sortBy/sortDirection"));
+            }
+        }
+
+        // Fetch one extra row to know whether another slice exists without running a COUNT
+        List<EmployeeResponseDTO> rows = employeeRepository.searchEmployeesAfter(
+                buildSearchSpecification(criteria, scope), after, sortBy, direction.isAscending(), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<EmployeeResponseDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? EmployeeSearchCursor.of(content.get(content.size() - 1), sortBy, direction.name()).encode()
+                : null;
+
+        return new CursorSlice<>(content, size, hasNext, nextCursor);
+    }
+
+    // Only the filters actually present end up in the WHERE clause; substring filters are answered
+    // by the in-memory text index when possible and fall back to LIKE otherwise
+    protected Specification<Employee> buildSearchSpecification(EmployeeSearchCriteria criteria) {
+        Specification<Employee> spec = EmployeeSpecifications.attributeFilters(criteria);
+        Set<Long> textMatches = null;
+
+        if (criteria.getSearchTerm() != null) {
+            Set<Long> ids = employeeTextIndex.matchName(criteria.getSearchTerm());
+            if (ids != null) {
+                textMatches = new HashSet<>(ids);
+            } else {
+                spec = spec.and(EmployeeSpecifications.nameContains(criteria.getSearchTerm()));
+            }
+        }
+        if (criteria.getJobTitle() != null) {
+            Set<Long> ids = employeeTextIndex.matchJobTitle(criteria.getJobTitle());
+            if (ids == null) {
+                spec = spec.and(EmployeeSpecifications.jobTitleContains(criteria.getJobTitle()));
+            } else if (textMatches == null) {
+                textMatches = new HashSet<>(ids);
+            } else {
+                textMatches.retainAll(ids);
+            }
+        }
+
+        return textMatches != null ? spec.and(EmployeeSpecifications.empIdIn(textMatches)) : spec;
+    }
+
+    // The search filters plus the caller's scope. A department filter has already passed scope.check()
+    // and confines the rows just as tightly, so the scope predicate is not repeated next to it.
+    protected Specification<Employee> buildSearchSpecification(EmployeeSearchCriteria criteria, AccessScope scope) {
+        Specification<Employee> spec = buildSearchSpecification(criteria);
+        return criteria.getDepartmentId() != null ? spec : scope.restrict(spec);
+    }
+
+    private record AppliedChange(Employee oldState, Employee employee) {
+    }
+
+    // What a batch validates against, loaded once per batch
+    private final class BatchLookups {
+        private final Map<Long, Employee> targets;
+        private final Set<Long> departmentIds;
+        private final Set<Long> employeeIds;
+        private final Set<String> existingEmails;
+        private final Set<Long> seenIds = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+
+        private BatchLookups(Map<Long, Employee> targets, List<EmployeeChangeDTO> changes) {
+            this.targets = targets;
+
+            List<Long> departments = changes.stream().map(EmployeeChangeDTO::getDepartmentId)
+                    .filter(Objects::nonNull).distinct().toList();
+            departmentIds = departments.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(departmentRepository.findExistingIds(departments));
+
+            employeeIds = new HashSet<>(targets.keySet());
+            List<Long> managers = changes.stream().map(EmployeeChangeDTO::getManagerId)
+                    .filter(id -> id != null && !targets.containsKey(id)).distinct().toList();
+            if (!managers.isEmpty()) {
+                employeeIds.addAll(employeeRepository.findExistingIds(managers));
+            }
+
+            // Only addresses that differ from the target's current one can collide
+            List<String> emails = changes.stream()
+                    .filter(change -> change.getEmail() != null && targets.containsKey(change.getEmpId())
+                            && !change.getEmail().equals(targets.get(change.getEmpId()).getEmail()))
+                    .map(EmployeeChangeDTO::getEmail).distinct().toList();
+            existingEmails = emails.isEmpty() ? Set.of() : new HashSet<>(employeeRepository.findExistingEmails(emails));
+        }
+    }
+
+    private void checkPrecondition(Employee employee, String ifMatch) {
+        if (ifMatch != null && !EntityTags.matches(ifMatch, EntityTags.of(employee))) {
+            throw new PreconditionFailedException("Employee " + employee.getEmpId() + " was modified since it was read");
+        }
+    }
+
+    // Cached pages show this employee's name as managerName on their reports' rows, wherever those are filed
+    private void invalidateSearchPages(Employee oldState, Employee employee) {
+        if (nameChanged(oldState, employee)) {
+            employeeSearchCache.invalidateAllAfterCommit();
+        } else {
+            employeeSearchCache.invalidateAfterCommit(deptIdOf(oldState), oldState.getStatus(),
+                    deptIdOf(employee), employee.getStatus());
+        }
+    }
+
+    private static boolean nameChanged(Employee oldState, Employee employee) {
+        return !Objects.equals(oldState.getFirstName(), employee.getFirstName())
+                || !Objects.equals(oldState.getLastName(), employee.getLastName());
+    }
+
+    private Long deptIdOf(Employee employee) {
+        return employee.getDepartment() != null ? employee.getDepartment().getDeptId() : null;
     }
 
     @Transactional
@@ -150,16 +661,8 @@ public class EmployeeService {
 
     @Transactional
     protected void validateUserPermissions(User user, Long departmentId) {
-        if (user.getRole() == UserRole.ADMIN || user.getRole() == UserRole.HR) {
-            return; // Admin and HR have full access
-        }
-
-        if (user.getRole() == UserRole.MANAGER) {
-            // Managers can only access their department
-            if (!user.getDepartment().getDeptId().equals(departmentId)) {
-                throw new AccessDeniedException("Access denied. Managers can only access their department.");
-            }
-        }
+        // Admin and HR have full access, managers only to their department
+        AccessScope.of(user).check(departmentId);
     }
     @Transactional
     protected void validateEmployeeData(Employee employee, String action) {
@@ -168,14 +671,15 @@ public class EmployeeService {
             throw new IllegalArgumentException("Email already exists");
         }
 
-        if (employee.getDepartment() != null) {
-            departmentRepository.findById(employee.getDepartment().getDeptId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Department not found"));
+        // Existence checks only, the references themselves stay unloaded
+        if (employee.getDepartment() != null
+                && !departmentRepository.existsById(employee.getDepartment().getDeptId())) {
+            throw new ResourceNotFoundException("Department not found");
         }
 
-        if (employee.getManager() != null) {
-            employeeRepository.findById(employee.getManager().getEmpId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Manager not found"));
+        if (employee.getManager() != null
+                && !employeeRepository.existsById(employee.getManager().getEmpId())) {
+            throw new ResourceNotFoundException("Manager not found");
         }
     }
     @Transactional
@@ -196,25 +700,29 @@ public class EmployeeService {
         copy.setFirstName(employee.getFirstName());
         copy.setLastName(employee.getLastName());
         copy.setEmail(employee.getEmail());
+        copy.setHireDate(employee.getHireDate());
         copy.setJobTitle(employee.getJobTitle());
         copy.setSalary(employee.getSalary());
         copy.setDepartment(employee.getDepartment());
         copy.setManager(employee.getManager());
         copy.setStatus(employee.getStatus());
+        copy.setCreatedAt(employee.getCreatedAt());
+        copy.setUpdatedAt(employee.getUpdatedAt());
+        copy.setCreatedBy(employee.getCreatedBy());
+        copy.setUpdatedBy(employee.getUpdatedBy());
         return copy;
     }
-    @Transactional
+    @Transactional(readOnly = true)
     protected List<Employee> getUserAccessibleEmployees(User user) {
-        if (user.getRole() == UserRole.ADMIN || user.getRole() == UserRole.HR) {
-            return employeeRepository.findAll();
-        } else if (user.getRole() == UserRole.MANAGER) {
-            return employeeRepository.findByDepartmentDeptId(user.getDepartment().getDeptId());
-        }
-        return List.of(); // Empty list for other roles
+        return employeeRepository.findAll(AccessScope.of(user).restrict(Specification.where(null)));
     }
-    @Transactional
-    public Page<Employee> getAllEmployees(Integer page, Integer size, String sortBy, String sortDirection, User currentUser) {
+    @Transactional(readOnly = true)
+    public PageSlice<EmployeeResponseDTO> getAllEmployees(Integer page, Integer size, String sortBy, String sortDirection,
+                                               TotalMode withTotal, User currentUser) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDirection), sortBy));
-        return employeeRepository.findAll(pageable);
+        EmployeeSearchCriteria unfiltered = new EmployeeSearchCriteria();
+        unfiltered.setWithTotal(withTotal);
+        AccessScope scope = AccessScope.of(currentUser);
+        return findPage(scope.restrict(Specification.where(null)), pageable, scope.narrow(unfiltered));
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.Employee;
+import com.example.erm.repositories.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class EmployeeTextIndex {
+    private final EmployeeRepository employeeRepository;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex jobTitles = new TrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+    // Writes committed while a rebuild is reading the table, replayed on top of the fresh snapshot
+    private List<Runnable> pendingDuringRebuild;
+
+    @Autowired
+    public EmployeeTextIndex(EmployeeRepository employeeRepository,
+                             @Value("${erm.search.text-index.enabled:true}") boolean enabled,
+                             @Value("${erm.search.text-index.max-candidates:1000}") int maxCandidates) {
+        this.employeeRepository = employeeRepository;
+        this.enabled = enabled;
+        // Candidates become one empId IN list, and Oracle rejects more than 1000 elements
+        this.maxCandidates = Math.min(maxCandidates, 1000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> rows = employeeRepository.findAllSearchText();
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            jobTitles.clear();
+            for (Object[] row : rows) {
+                Long empId = (Long) row[0];
+                names.put(empId, (String) row[1], (String) row[2]);
+                jobTitles.put(empId, (String) row[3]);
+            }
+            pendingDuringRebuild.forEach(Runnable::run);
+            pendingDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applied after commit so a rolled back write never leaves the index ahead of the table
+    public void indexAfterCommit(Employee employee) {
+        if (!enabled) {
+            return;
+        }
+        Long empId = employee.getEmpId();
+        String firstName = employee.getFirstName();
+        String lastName = employee.getLastName();
+        String jobTitle = employee.getJobTitle();
+        Runnable apply = () -> {
+            names.put(empId, firstName, lastName);
+            jobTitles.put(empId, jobTitle);
+        };
+        Runnable update = () -> {
+            lock.writeLock().lock();
+            try {
+                apply.run();
+                if (pendingDuringRebuild != null) {
+                    pendingDuringRebuild.add(apply);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        TransactionHooks.afterCommit(update);
+    }
+
+    // Ids whose first or last name contains the term, or null when the caller should fall back to SQL LIKE
+    public Set<Long> matchName(String term) {
+        return match(names, term);
+    }
+
+    public Set<Long> matchJobTitle(String term) {
+        return match(jobTitles, term);
+    }
+
+    private Set<Long> match(TrigramIndex index, String term) {
+        if (!ready || !TrigramIndex.supports(term)) {
+            return null;
+        }
+        Set<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = index.search(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Very broad terms are cheaper as a scan than as a huge IN list
+        return ids.size() > maxCandidates ? null : ids;
+    }
+}
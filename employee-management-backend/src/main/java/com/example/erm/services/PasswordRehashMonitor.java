@@ -0,0 +1,49 @@
+package com.example.erm.services;
+
+import com.example.erm.config.AdaptivePasswordEncoder;
+import com.example.erm.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes how many stored hashes are at a BCrypt cost below the current one, counted in the database
+// periodically and decremented as logins re-hash them
+@Component
+public class PasswordRehashMonitor {
+    private final UserRepository userRepository;
+    private final AdaptivePasswordEncoder passwordEncoder;
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter rehashed;
+
+    @Autowired
+    public PasswordRehashMonitor(UserRepository userRepository, AdaptivePasswordEncoder passwordEncoder,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        Gauge.builder("erm.security.password.rehash.pending", pending, AtomicLong::get).register(meterRegistry);
+        this.rehashed = Counter.builder("erm.security.password.rehashed").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${erm.security.bcrypt.rehash-count-interval-ms:600000}",
+            initialDelayString = "${erm.security.bcrypt.rehash-count-interval-ms:600000}")
+    public void refresh() {
+        pending.set(userRepository.countByPasswordCostBelow(String.format("%02d", passwordEncoder.strength())));
+    }
+
+    public void rehashed() {
+        rehashed.increment();
+        pending.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    public long pending() {
+        return pending.get();
+    }
+}
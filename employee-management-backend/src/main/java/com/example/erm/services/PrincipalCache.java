@@ -0,0 +1,123 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.User;
+import com.example.erm.repositories.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Short-lived cache of authenticated users by username, shared by authentication and the controllers'
+// current-user lookup. Holds a detached snapshot (scalars plus the department id only) and hands out a
+// fresh copy per call, so nothing a request does to its User leaks into the next one.
+@Component
+public class PrincipalCache {
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a lookup that raced with a user write does not store the old row
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${erm.security.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${erm.security.principal-cache.max-entries:10000}") int maxEntries,
+                          @Value("${erm.security.principal-cache.ttl:30s}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+
+        FunctionCounter.builder("erm.security.principal-cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("erm.security.principal-cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("erm.security.principal-cache.invalidations", invalidations, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("erm.security.principal-cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (!enabled) {
+            return userRepository.findByUsername(username);
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            hits.incrementAndGet();
+            return Optional.of(snapshot(entry.user));
+        }
+
+        misses.incrementAndGet();
+        long generationAtLoad = generation.get();
+        Optional<User> user = userRepository.findByUsername(username).map(PrincipalCache::snapshot);
+        user.ifPresentOrElse(found -> store(username, found, now, generationAtLoad), () -> entries.remove(username));
+        return user.map(PrincipalCache::snapshot);
+    }
+
+    // Dropped after commit, so the next request reloads the committed row
+    public void invalidateAfterCommit(String... usernames) {
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            for (String username : usernames) {
+                if (username != null && entries.remove(username) != null) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void store(String username, User user, long now, long generationAtLoad) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(username, new Entry(user, now));
+        // An invalidation that landed during the load may have missed the entry just put
+        if (generation.get() != generationAtLoad) {
+            entries.remove(username);
+        }
+    }
+
+    private static User snapshot(User user) {
+        User copy = new User();
+        copy.setUserId(user.getUserId());
+        copy.setUsername(user.getUsername());
+        copy.setPasswordHash(user.getPasswordHash());
+        copy.setRole(user.getRole());
+        copy.setEmail(user.getEmail());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setLastLogin(user.getLastLogin());
+        copy.setVersion(user.getVersion());
+        if (user.getDepartment() != null) {
+            Department department = new Department();
+            department.setDeptId(user.getDepartment().getDeptId());
+            copy.setDepartment(department);
+        }
+        return copy;
+    }
+
+    private record Entry(User user, long loadedAt) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.erm.services;
+
+import java.util.*;
+
+// Substring index over short texts: maps every 3-character gram to the ids containing it.
+// Not thread-safe, callers guard access.
+class TrigramIndex {
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+
+    void put(Long id, String... texts) {
+        remove(id);
+        String[] normalized = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            normalized[i] = normalize(texts[i]);
+            for (String gram : grams(normalized[i])) {
+                postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+            }
+        }
+        documents.put(id, normalized);
+    }
+
+    void remove(Long id) {
+        String[] previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String text : previous) {
+            for (String gram : grams(text)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    static boolean supports(String term) {
+        return term != null && normalize(term).length() >= GRAM;
+    }
+
+    // Ids whose texts contain the term in at least one field; grams narrow the candidates, a contains() check confirms them
+    Set<Long> search(String term) {
+        String needle = normalize(term);
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>();
+        for (Long id : lists.get(0)) {
+            if (containsInAll(lists, id) && matches(documents.get(id), needle)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static boolean containsInAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String[] texts, String needle) {
+        for (String text : texts) {
+            if (text.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
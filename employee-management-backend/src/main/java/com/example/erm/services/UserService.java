@@ -1,10 +1,13 @@
 package com.example.erm.services;
 
+import com.example.erm.config.CachingBasicAuthenticationProvider;
 import com.example.erm.entities.User;
 import com.example.erm.exceptions.DuplicateResourceException;
 import com.example.erm.exceptions.ResourceNotFoundException;
 import com.example.erm.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +20,9 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
+    private final PrincipalCache principalCache;
+    private final PasswordRehashMonitor rehashMonitor;
+    private final CachingBasicAuthenticationProvider credentialVerifier;
 
     public User createUser(User user) {
         // Validate unique constraints
@@ -72,6 +78,8 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(existingUser);
+        // Role, password and username changes take effect on the next request, not after the TTL
+        principalCache.invalidateAfterCommit(oldState.getUsername(), savedUser.getUsername());
 
         auditService.logActivity(
                 "users",
@@ -100,6 +108,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         userRepository.delete(user);
+        principalCache.invalidateAfterCommit(user.getUsername());
 
         auditService.logActivity(
                 "users",
@@ -120,16 +129,37 @@ public class UserService {
         copy.setPasswordHash(user.getPasswordHash());
         copy.setCreatedAt(user.getCreatedAt());
         copy.setLastLogin(user.getLastLogin());
+        copy.setDepartment(user.getDepartment());
         return copy;
     }
 
     //login user
+    // Checked like HTTP Basic, through the credential cache and the bounded BCrypt pool; a saturated pool
+    // surfaces as CredentialCheckSaturatedException (503)
     public User loginUser(User user) {
-        return userRepository.findByUsername(user.getUsername())
-                .filter(u -> {
-                    System.out.println(passwordEncoder.matches(user.getPasswordHash(), u.getPasswordHash()));
-                    return passwordEncoder.matches(user.getPasswordHash(), u.getPasswordHash());
-                })
+        try {
+            credentialVerifier.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(user.getUsername(), user.getPasswordHash()));
+        } catch (BadCredentialsException e) {
+            throw new ResourceNotFoundException("Invalid username or password");
+        }
+        User loginUser = userRepository.findByUsername(user.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid username or password"));
+        rehashIfNeeded(loginUser, user.getPasswordHash());
+        return loginUser;
+    }
+
+    // Moves a hash made at a lower BCrypt cost up to the current one while the plain password is at hand
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            return;
+        }
+        String newHash = credentialVerifier.encode(rawPassword);
+        if (userRepository.replacePasswordHash(user.getUserId(), user.getPasswordHash(), newHash) == 1) {
+            user.setPasswordHash(newHash);
+            user.setVersion(user.getVersion() + 1);
+            principalCache.invalidateAfterCommit(user.getUsername());
+            rehashMonitor.rehashed();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+-- Aligns the Oracle id sequences with the pooled id generators (SequenceIds.ALLOCATION_SIZE = 50).
+-- Run once before the first node with pooled ids starts; until then Hibernate refuses to boot with an
+-- increment mismatch. Nodes still running the old allocationSize = 1 build can keep going meanwhile:
+-- each of their nextval calls claims a whole block, so their ids never collide with pooled ones.
+-- Safe to re-run, sequences already at 50 are left alone.
+BEGIN
+    FOR s IN (SELECT sequence_name
+              FROM user_sequences
+              WHERE sequence_name IN ('EMP_ID_SEQ', 'DEPT_ID_SEQ', 'USER_ID_SEQ', 'AUDIT_ID_SEQ')
+                AND increment_by <> 50) LOOP
+        EXECUTE IMMEDIATE 'ALTER SEQUENCE ' || s.sequence_name || ' INCREMENT BY 50';
+    END LOOP;
+END;
+/
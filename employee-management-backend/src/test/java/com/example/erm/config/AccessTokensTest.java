@@ -0,0 +1,64 @@
+package com.example.erm.config;
+
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokensTest {
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+    @Test
+    void verify_ShouldReturnTheClaimsOfAnIssuedToken() {
+        AccessTokens tokens = tokens(NOW);
+
+        AccessTokens.Claims claims = tokens.verify(tokens.issue(user("jane|doe"))).orElseThrow();
+
+        assertEquals("jane|doe", claims.username());
+        assertEquals(UserRole.MANAGER, claims.role());
+        assertEquals(42L, claims.userId());
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), claims.expiresAt());
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedAndForeignTokens() {
+        String token = tokens(NOW).issue(user("jane"));
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (NOW.plusSeconds(900).getEpochSecond() + "|ADMIN|42|jane").getBytes());
+
+        assertTrue(tokens(NOW).verify(forgedPayload + "." + parts[1]).isEmpty());
+        assertTrue(new AccessTokens("", Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC))
+                .verify(token).isEmpty());
+        assertTrue(tokens(NOW).verify("not-a-token").isEmpty());
+        assertTrue(tokens(NOW).verify(parts[0] + ".!!").isEmpty());
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredTokens() {
+        String token = tokens(NOW).issue(user("jane"));
+
+        assertTrue(tokens(NOW.plus(Duration.ofMinutes(14))).verify(token).isPresent());
+        assertTrue(tokens(NOW.plus(Duration.ofMinutes(15))).verify(token).isEmpty());
+    }
+
+    private AccessTokens tokens(Instant now) {
+        return new AccessTokens(SECRET, Duration.ofMinutes(15), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUserId(42L);
+        user.setUsername(username);
+        user.setRole(UserRole.MANAGER);
+        return user;
+    }
+}
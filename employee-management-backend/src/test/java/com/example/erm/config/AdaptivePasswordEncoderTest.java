@@ -0,0 +1,41 @@
+package com.example.erm.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_ShouldFlagOnlyWeakerHashes() {
+        AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(5, new SimpleMeterRegistry());
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        // Another node may have calibrated higher; re-hashing down would flip-flop between them
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding("plain-text"));
+        assertEquals(12, AdaptivePasswordEncoder.costOf("$2y$12$abc"));
+    }
+
+    @Test
+    void matches_ShouldRecordVerifyTimes() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(4, meterRegistry);
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(2, meterRegistry.get("erm.security.password.verify").timer().count());
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinTheConfiguredBounds() {
+        assertEquals(4, AdaptivePasswordEncoder.calibrate(Duration.ofNanos(1), 4, 6));
+        assertEquals(6, AdaptivePasswordEncoder.calibrate(Duration.ofMinutes(1), 4, 6));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.erm.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingBasicAuthenticationProviderTest {
+
+    private CustomUserDetailsService userDetailsService;
+    private PasswordEncoder passwordEncoder;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingBasicAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(CustomUserDetailsService.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(userDetailsService.loadUserByUsername("jane")).thenReturn(user("hash-1"));
+        when(passwordEncoder.matches("secret", "hash-1")).thenReturn(true);
+        provider = provider(2, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.stop();
+    }
+
+    @Test
+    void authenticate_ShouldSkipBCryptForARecentlyVerifiedPassword() {
+        provider.authenticate(credentials("secret"));
+        provider.authenticate(credentials("secret"));
+
+        verify(passwordEncoder, times(1)).matches("secret", "hash-1");
+        assertEquals(1.0, meterRegistry.get("erm.security.credential-cache.hits").functionCounter().count());
+    }
+
+    @Test
+    void authenticate_ShouldNotCacheFailuresAndRecheckAfterAPasswordChange() {
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("wrong")));
+        verify(passwordEncoder, times(2)).matches("wrong", "hash-1");
+
+        provider.authenticate(credentials("secret"));
+        when(userDetailsService.loadUserByUsername("jane")).thenReturn(user("hash-2"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("secret")));
+        verify(passwordEncoder).matches("secret", "hash-2");
+    }
+
+    @Test
+    void authenticate_ShouldRefuseWhenThePasswordCheckPoolIsFull() throws Exception {
+        provider.stop();
+        meterRegistry = new SimpleMeterRegistry();
+        provider = provider(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+
+        CompletableFuture<?> running = CompletableFuture.runAsync(() -> provider.authenticate(credentials("secret")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<?> queued = CompletableFuture.runAsync(() -> provider.authenticate(credentials("other")));
+        while (meterRegistry.get("erm.security.password-check.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(CachingBasicAuthenticationProvider.CredentialCheckSaturatedException.class,
+                () -> provider.authenticate(credentials("third")));
+        // Re-hashing at login queues on the same pool
+        assertThrows(CachingBasicAuthenticationProvider.CredentialCheckSaturatedException.class,
+                () -> provider.encode("third"));
+        assertEquals(2.0, meterRegistry.get("erm.security.password-check.rejected").functionCounter().count());
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    private CachingBasicAuthenticationProvider provider(int threads, int queueCapacity) {
+        return new CachingBasicAuthenticationProvider(userDetailsService, passwordEncoder, true, 100,
+                Duration.ofMinutes(1), threads, queueCapacity, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("jane", password);
+    }
+
+    private static org.springframework.security.core.userdetails.UserDetails user(String passwordHash) {
+        return User.withUsername("jane").password(passwordHash).roles("HR").build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.erm.controllers;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import com.example.erm.repositories.DepartmentRepository;
+import com.example.erm.repositories.EmployeeRepository;
+import com.example.erm.repositories.UserRepository;
+import com.example.erm.services.PrincipalCache;
+import com.example.erm.support.CapturingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A manager's reads must be confined to their department in SQL, not filtered afterwards
+@SpringBootTest(properties = "erm.search.cache.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(username = "scoped-manager", roles = "MANAGER")
+class EmployeeControllerAccessScopeTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private Department own;
+    private Employee ownEmployee;
+    private Employee otherEmployee;
+
+    @BeforeEach
+    void setUp() {
+        own = department();
+        Department other = department();
+        ownEmployee = employeeRepository.save(employee(own));
+        otherEmployee = employeeRepository.save(employee(other));
+
+        User manager = userRepository.findByUsername("scoped-manager").orElseGet(User::new);
+        manager.setUsername("scoped-manager");
+        manager.setPasswordHash("unused");
+        manager.setEmail("scoped-manager@example.com");
+        manager.setRole(UserRole.MANAGER);
+        manager.setDepartment(own);
+        userRepository.save(manager);
+        principalCache.invalidateAfterCommit("scoped-manager");
+        principalCache.findByUsername("scoped-manager");
+    }
+
+    @Test
+    void listEmployees_ShouldOnlyScanTheManagersDepartment() throws Exception {
+        CapturingStatementInspector.clear();
+        mockMvc.perform(get("/api/v1/employees").param("size", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].departmentId", everyItem(is(own.getDeptId().intValue()))))
+                .andExpect(jsonPath("$.content[*].empId", hasItem(ownEmployee.getEmpId().intValue())))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+        List<String> selects = CapturingStatementInspector.selects();
+        assertFalse(selects.isEmpty());
+        assertTrue(selects.stream().allMatch(sql -> sql.contains("dept_id=?")), selects::toString);
+    }
+
+    @Test
+    void searchEmployees_WithoutDepartmentShouldStayInTheManagersDepartment() throws Exception {
+        mockMvc.perform(get("/api/v1/employees/search")
+                        .param("status", "ACTIVE")
+                        .param("size", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].departmentId", everyItem(is(own.getDeptId().intValue()))))
+                .andExpect(jsonPath("$.content[*].empId", not(hasItem(otherEmployee.getEmpId().intValue()))));
+    }
+
+    @Test
+    void getEmployee_FromAnotherDepartmentShouldBeDenied() throws Exception {
+        mockMvc.perform(get("/api/v1/employees/{id}", otherEmployee.getEmpId()))
+                .andExpect(status().isForbidden());
+    }
+
+    private Department department() {
+        Department department = new Department();
+        department.setDeptName("ScopeDept" + SEQUENCE.incrementAndGet());
+        return departmentRepository.save(department);
+    }
+
+    private Employee employee(Department department) {
+        int n = SEQUENCE.incrementAndGet();
+        Employee employee = new Employee();
+        employee.setFirstName("Scoped" + n);
+        employee.setLastName("Last" + n);
+        employee.setEmail("scoped" + n + "@example.com");
+        employee.setHireDate(LocalDate.of(2021, 1, 1));
+        employee.setJobTitle("Engineer");
+        employee.setSalary(new BigDecimal("1000"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
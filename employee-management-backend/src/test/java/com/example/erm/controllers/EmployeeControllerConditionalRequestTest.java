@@ -0,0 +1,115 @@
+package com.example.erm.controllers;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.repositories.DepartmentRepository;
+import com.example.erm.repositories.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "erm.search.cache.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class EmployeeControllerConditionalRequestTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Department department;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        int n = SEQUENCE.incrementAndGet();
+        department = new Department();
+        department.setDeptName("Conditional" + n);
+        department = departmentRepository.save(department);
+
+        employee = new Employee();
+        employee.setFirstName("First" + n);
+        employee.setLastName("Last" + n);
+        employee.setEmail("conditional" + n + "@example.com");
+        employee.setHireDate(LocalDate.of(2021, 1, 1));
+        employee.setJobTitle("Engineer");
+        employee.setSalary(new BigDecimal("1000"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        employee.setDepartment(department);
+        employee = employeeRepository.save(employee);
+    }
+
+    @Test
+    void get_ShouldAnswerNotModifiedUntilTheDepartmentIsRenamed() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(get("/api/v1/employees/{id}", employee.getEmpId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // The response shows the department name, so renaming it must invalidate cached copies
+        department.setDeptName(department.getDeptName() + "-renamed");
+        departmentRepository.save(department);
+        mockMvc.perform(get("/api/v1/employees/{id}", employee.getEmpId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void writes_ShouldRequireTheCurrentETagWhenIfMatchIsSent() throws Exception {
+        String etag = etag();
+
+        String updated = mockMvc.perform(patch("/api/v1/employees/{id}", employee.getEmpId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"jobTitle\":\"Lead\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updated);
+        assertEquals(updated, etag());
+
+        // A second writer still holding the old ETag is refused
+        mockMvc.perform(patch("/api/v1/employees/{id}", employee.getEmpId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"jobTitle\":\"Architect\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/employees/{id}", employee.getEmpId()).header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/employees/{id}", employee.getEmpId()).header(HttpHeaders.IF_MATCH, updated))
+                .andExpect(status().isNoContent());
+    }
+
+    private String etag() throws Exception {
+        return mockMvc.perform(get("/api/v1/employees/{id}", employee.getEmpId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.erm.controllers;
+
+import com.example.erm.entities.Department;
+import com.example.erm.repositories.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two-row chunks, so duplicates are caught both within a chunk and against chunks that already committed
+@SpringBootTest(properties = {"erm.search.cache.enabled=false", "erm.import.chunk-size=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class EmployeeControllerImportTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setDeptName("ImportDept" + SEQUENCE.incrementAndGet());
+        department = departmentRepository.save(department);
+    }
+
+    @Test
+    void importEmployees_ShouldRejectDuplicateEmailsAcrossAndWithinChunks() throws Exception {
+        String prefix = "chunked" + SEQUENCE.incrementAndGet() + "-";
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,hireDate,jobTitle,departmentId\n");
+        // Lines 2-3, 4-5 and 6-7 form the chunks; line 5 repeats a committed row, line 7 its chunk neighbour
+        for (String suffix : List.of("0", "1", "2", "0", "3", "3")) {
+            csv.append("Imported,Row,").append(prefix).append(suffix)
+                    .append("@example.com,2022-05-01,Analyst,").append(department.getDeptId()).append('\n');
+        }
+
+        String[] events = mockMvc.perform(post("/api/v1/employees/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        List<String> errors = Arrays.stream(events).filter(event -> event.contains("Email already exists")).toList();
+        assertEquals(2, errors.size(), Arrays.toString(events));
+        assertTrue(errors.get(0).contains("\"line\":5"));
+        assertTrue(errors.get(1).contains("\"line\":7"));
+        assertTrue(events[events.length - 1].contains("\"imported\":4"));
+        assertTrue(events[events.length - 1].contains("\"failed\":2"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.erm.controllers;
+
+import com.example.erm.dto.EmployeeSearchCursor;
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.repositories.DepartmentRepository;
+import com.example.erm.repositories.EmployeeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "erm.search.keyset.max-size=50")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class EmployeeControllerKeysetTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Department department;
+    private final List<Long> empIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setDeptName("KeysetDept" + SEQUENCE.incrementAndGet());
+        department = departmentRepository.save(department);
+        for (int i = 0; i < 5; i++) {
+            empIds.add(employeeRepository.save(employee()).getEmpId());
+        }
+    }
+
+    @Test
+    void keysetSearch_ShouldFollowCursorsToAShortLastSlice() throws Exception {
+        List<Long> walked = new ArrayList<>();
+        String after = null;
+        JsonNode slice;
+        do {
+            MockHttpServletRequestBuilder request = keyset().param("size", "2");
+            if (after != null) {
+                request.param("after", after);
+            }
+            slice = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            slice.get("content").forEach(row -> walked.add(row.get("empId").asLong()));
+            after = slice.get("nextCursor").isNull() ? null : slice.get("nextCursor").asText();
+        } while (after != null);
+
+        assertEquals(empIds, walked);
+        assertFalse(slice.get("hasNext").asBoolean());
+        assertEquals(1, slice.get("content").size());
+    }
+
+    @Test
+    void keysetSearch_ShouldRejectSizesOutsideTheAllowedRange() throws Exception {
+        for (String size : List.of("0", "-1", "51")) {
+            mockMvc.perform(keyset().param("size", size))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors.size").exists());
+        }
+    }
+
+    @Test
+    void keysetSearch_ShouldRejectCursorsWithAMalformedKey() throws Exception {
+        for (EmployeeSearchCursor cursor : List.of(
+                new EmployeeSearchCursor("hireDate", "ASC", "2021-13-45", 1L),
+                new EmployeeSearchCursor("status", "ASC", "RETIRED", 1L),
+                new EmployeeSearchCursor("empId", "ASC", "first", 1L))) {
+            mockMvc.perform(keyset()
+                            .param("sortBy", cursor.getSortBy())
+                            .param("after", cursor.encode()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors.after").exists());
+        }
+    }
+
+    @Test
+    void keysetSearch_ShouldAcceptTheMaximumSize() throws Exception {
+        String body = mockMvc.perform(keyset().param("size", "50"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("\"hasNext\":false"));
+    }
+
+    private MockHttpServletRequestBuilder keyset() {
+        return get("/api/v1/employees/search")
+                .param("pagination", "keyset")
+                .param("departmentId", department.getDeptId().toString());
+    }
+
+    private Employee employee() {
+        int n = SEQUENCE.incrementAndGet();
+        Employee employee = new Employee();
+        employee.setFirstName("Keyset" + n);
+        employee.setLastName("Last" + n);
+        employee.setEmail("keyset" + n + "@example.com");
+        employee.setHireDate(LocalDate.of(2021, 1, 1));
+        employee.setJobTitle("Engineer");
+        employee.setSalary(new BigDecimal("1000"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.erm.controllers;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.repositories.DepartmentRepository;
+import com.example.erm.repositories.EmployeeRepository;
+import com.example.erm.services.PrincipalCache;
+import com.example.erm.support.CapturingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards the fetch plans: the statement count of each endpoint must not grow with the manager chain
+@SpringBootTest(properties = "erm.search.cache.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class EmployeeControllerStatementCountTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private Department department;
+    private final List<Employee> chain = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setDeptName("Dept" + SEQUENCE.incrementAndGet());
+        department = departmentRepository.save(department);
+
+        // Five levels of management, the first has no manager
+        Employee manager = null;
+        for (int level = 0; level < 5; level++) {
+            manager = employeeRepository.save(employee(manager));
+            chain.add(manager);
+        }
+        // Requests resolve the caller from the principal cache, so the counts below are the endpoints' own
+        principalCache.findByUsername("admin");
+    }
+
+    @Test
+    void getEmployee_ShouldUseOneProjectionRegardlessOfChainDepth() throws Exception {
+        int shallow = selectsFor(get("/api/v1/employees/{id}", chain.get(0).getEmpId()));
+        int deep = selectsFor(get("/api/v1/employees/{id}", chain.get(4).getEmpId()));
+
+        // Only the detail projection
+        assertEquals(1, shallow);
+        assertEquals(shallow, deep);
+    }
+
+    @Test
+    void listEmployees_ShouldNotLoadAssociationsPerRow() throws Exception {
+        int selects = selectsFor(get("/api/v1/employees")
+                .param("size", "5")
+                .param("withTotal", "false"));
+
+        assertEquals(1, selects);
+    }
+
+    @Test
+    void searchEmployees_ShouldNotLoadAssociationsPerRow() throws Exception {
+        int selects = selectsFor(get("/api/v1/employees/search")
+                .param("departmentId", department.getDeptId().toString())
+                .param("withTotal", "false"));
+
+        assertEquals(1, selects);
+    }
+
+    @Test
+    void exportEmployees_ShouldStreamFromOneQuery() throws Exception {
+        CapturingStatementInspector.clear();
+        String csv = mockMvc.perform(get("/api/v1/employees/export")
+                        .param("departmentId", department.getDeptId().toString())
+                        .param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = csv.split("\r\n");
+        assertEquals(6, lines.length);
+        assertTrue(lines[0].startsWith("empId,firstName"));
+        assertTrue(lines[1].startsWith(chain.get(0).getEmpId() + ","));
+        // Only the streamed projection
+        assertEquals(1, CapturingStatementInspector.selects().size());
+    }
+
+    @Test
+    void importEmployees_ShouldBatchInsertsAndReportRejectedRows() throws Exception {
+        int n = SEQUENCE.addAndGet(100);
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,hireDate,jobTitle,departmentId,managerId\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("Imported,Row").append(i).append(",import").append(n).append('-').append(i)
+                    .append("@example.com,2022-05-01,Analyst,").append(department.getDeptId())
+                    .append(',').append(chain.get(0).getEmpId()).append('\n');
+        }
+        csv.append("Bad,Row,import").append(n).append("-0@example.com,2022-05-01,Analyst,")
+                .append(department.getDeptId()).append(",\n");
+
+        CapturingStatementInspector.clear();
+        String[] events = mockMvc.perform(post("/api/v1/employees/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertTrue(events[0].contains("\"line\":12") && events[0].contains("Email already exists"));
+        assertTrue(events[events.length - 1].contains("\"imported\":10"));
+        assertTrue(events[events.length - 1].contains("\"failed\":1"));
+        // Ten employee rows go out as one JDBC batch; ids for them and their audit rows come from pooled blocks
+        assertEquals(1, CapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.startsWith("insert into employees")).count());
+        assertTrue(CapturingStatementInspector.selects().stream()
+                .filter(sql -> sql.contains("emp_id_seq")).count() <= 2);
+        assertTrue(CapturingStatementInspector.selects().stream()
+                .filter(sql -> sql.contains("audit_id_seq")).count() <= 2);
+    }
+
+    @Test
+    void updateEmployee_ShouldNotWalkTheManagerChain() throws Exception {
+        int shallow = selectsFor(update(chain.get(1), chain.get(0)));
+        int deep = selectsFor(update(chain.get(4), chain.get(3)));
+
+        // Detail graph, three existence checks and the audit id
+        assertTrue(shallow <= 5, "PUT issued " + shallow + " selects");
+        assertEquals(shallow, deep);
+    }
+
+    @Test
+    void batchUpdate_ShouldLoadTargetsOnceAndBatchTheUpdates() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (Employee employee : chain) {
+            body.append("{\"empId\":").append(employee.getEmpId())
+                    .append(",\"jobTitle\":\"Staff Engineer\",\"salary\":1250.50},");
+        }
+        body.append("{\"empId\":").append(chain.get(0).getEmpId()).append(",\"departmentId\":-1},");
+        body.append("{\"empId\":-1,\"salary\":1}]");
+
+        CapturingStatementInspector.clear();
+        String results = mockMvc.perform(patch("/api/v1/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(5, results.split("\"updated\"", -1).length - 1);
+        assertTrue(results.contains("\"index\":5") && results.contains("appears more than once"));
+        assertTrue(results.contains("\"index\":6") && results.contains("Employee not found"));
+        // Five rows, one batched statement
+        assertEquals(1, CapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.startsWith("update employees")).count());
+        // The targets' IN query and the departments' one, whatever the batch size;
+        // audit ids come from a pooled block
+        assertEquals(2, CapturingStatementInspector.selects().stream()
+                .filter(sql -> !sql.contains("audit_id_seq")).count());
+        assertTrue(CapturingStatementInspector.selects().stream()
+                .filter(sql -> sql.contains("audit_id_seq")).count() <= 2);
+        assertEquals(0, new BigDecimal("1250.50").compareTo(
+                employeeRepository.findById(chain.get(4).getEmpId()).orElseThrow().getSalary()));
+    }
+
+    @Test
+    void batchUpdate_ShouldRejectNullItems() throws Exception {
+        mockMvc.perform(patch("/api/v1/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"empId\":" + chain.get(0).getEmpId() + ",\"salary\":1}, null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("changes[1]")));
+    }
+
+    @Test
+    void mergePatch_ShouldWriteOnlyTheFieldsPresent() throws Exception {
+        Employee employee = chain.get(2);
+        CapturingStatementInspector.clear();
+        mockMvc.perform(patch("/api/v1/employees/{id}", employee.getEmpId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"status\":\"ON_LEAVE\",\"salary\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"status\":\"ON_LEAVE\"")));
+
+        List<String> updates = CapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.startsWith("update employees")).toList();
+        assertEquals(1, updates.size());
+        assertTrue(updates.get(0).contains("status") && updates.get(0).contains("salary"));
+        assertFalse(updates.get(0).contains("first_name") || updates.get(0).contains("manager_id"), updates.get(0));
+        // Only the detail graph, no department or manager lookups; the rest are audit ids
+        assertEquals(1, CapturingStatementInspector.selects().stream()
+                .filter(sql -> !sql.contains("audit_id_seq")).count());
+        assertNull(employeeRepository.findById(employee.getEmpId()).orElseThrow().getSalary());
+    }
+
+    @Test
+    void mergePatch_ShouldRejectNullsForRequiredFieldsAndUnknownFields() throws Exception {
+        Employee employee = chain.get(2);
+        mockMvc.perform(patch("/api/v1/employees/{id}", employee.getEmpId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":null,\"managerId\":" + employee.getEmpId() + "}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Self-reference not allowed")))
+                .andExpect(content().string(containsString("First name is required")));
+        mockMvc.perform(patch("/api/v1/employees/{id}", employee.getEmpId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"createdAt\":\"2020-01-01T00:00:00\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private int selectsFor(RequestBuilder request) throws Exception {
+        CapturingStatementInspector.clear();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        return CapturingStatementInspector.selects().size();
+    }
+
+    private Employee employee(Employee manager) {
+        int n = SEQUENCE.incrementAndGet();
+        Employee employee = new Employee();
+        employee.setFirstName("First" + n);
+        employee.setLastName("Last" + n);
+        employee.setEmail("employee" + n + "@example.com");
+        employee.setHireDate(LocalDate.of(2021, 1, 1));
+        employee.setJobTitle("Engineer");
+        employee.setSalary(new BigDecimal("1000"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        employee.setDepartment(department);
+        employee.setManager(manager);
+        return employee;
+    }
+
+    private RequestBuilder update(Employee employee, Employee manager) {
+        String body = """
+                {"firstName":"%s","lastName":"Renamed","email":"%s","hireDate":"2021-01-01",
+                 "jobTitle":"Engineer","departmentId":%d,"managerId":%d,"status":"ACTIVE"}
+                """.formatted(employee.getFirstName(), employee.getEmail(), department.getDeptId(),
+                manager.getEmpId());
+        return put("/api/v1/employees/{id}", employee.getEmpId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.erm.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs against the admin account created by DatabaseInitializer
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class UserControllerAccessTokenTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void login_ShouldIssueATokenAcceptedInPlaceOfBasicCredentials() throws Exception {
+        JsonNode login = objectMapper.readTree(mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("admin", login.get("username").asText());
+        assertEquals("Bearer", login.get("tokenType").asText());
+
+        mockMvc.perform(get("/api/v1/departments")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + login.get("accessToken").asText()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void invalidToken_ShouldBeRejectedWithoutFallingBackToBasic() throws Exception {
+        mockMvc.perform(get("/api/v1/departments").header(HttpHeaders.AUTHORIZATION, "Bearer forged.token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+        mockMvc.perform(get("/api/v1/departments").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void staleToken_ShouldNotBlockLoggingInAgain() throws Exception {
+        mockMvc.perform(post("/api/v1/users/login")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer expired.token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .andExpect(status().isOk());
+    }
+}
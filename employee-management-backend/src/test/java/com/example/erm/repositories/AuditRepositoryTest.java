@@ -0,0 +1,108 @@
+package com.example.erm.repositories;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class AuditRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = new User();
+        admin.setUsername("auditor");
+        admin.setPasswordHash("hash");
+        admin.setEmail("auditor@example.com");
+        admin.setRole(UserRole.ADMIN);
+        entityManager.persist(admin);
+        // Two rows per minute, so ties on changedAt have to be broken by auditId
+        for (int i = 0; i < 8; i++) {
+            entityManager.persist(audit(i % 2 == 0 ? "employees" : "departments", (long) i % 3,
+                    i < 6 ? "UPDATE" : "DELETE", START.plusMinutes(i / 2), i % 4 == 0 ? admin : null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void searchAfter_ShouldWalkEveryRowOnceAcrossSlices() {
+        List<Long> seen = new ArrayList<>();
+        AuditCursor after = null;
+        List<AuditTrailDTO> slice;
+        do {
+            slice = auditRepository.searchAfter(new AuditSearchCriteria(), after, false, 3);
+            slice.forEach(row -> seen.add(row.getAuditId()));
+            after = slice.isEmpty() ? null : AuditCursor.of(slice.get(slice.size() - 1), "DESC");
+        } while (slice.size() == 3);
+
+        assertEquals(8, seen.size());
+        assertEquals(8, seen.stream().distinct().count());
+        List<AuditTrailDTO> all = auditRepository.searchAfter(new AuditSearchCriteria(), null, false, 100);
+        assertEquals(seen, all.stream().map(AuditTrailDTO::getAuditId).toList());
+        assertFalse(all.get(0).getPerformedAt().isBefore(all.get(7).getPerformedAt()));
+    }
+
+    @Test
+    void searchAfter_ShouldCombineFilters() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setTableName("employees");
+        criteria.setAction("UPDATE");
+        criteria.setChangedFrom(START.plusMinutes(1));
+
+        List<AuditTrailDTO> rows = auditRepository.searchAfter(criteria, null, true, 100);
+
+        assertEquals(2, rows.size());
+        rows.forEach(row -> {
+            assertEquals("employees", row.getTableName());
+            assertEquals("UPDATE", row.getAction());
+        });
+    }
+
+    @Test
+    void searchAfter_ShouldFilterByAuthorAndProjectTheUsername() {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setChangedBy(admin.getUserId());
+
+        List<AuditTrailDTO> rows = auditRepository.searchAfter(criteria, null, true, 100);
+
+        assertEquals(2, rows.size());
+        assertEquals("auditor", rows.get(0).getPerformedBy());
+    }
+
+    private AuditTrail audit(String tableName, Long recordId, String action, LocalDateTime changedAt, User user) {
+        AuditTrail audit = new AuditTrail();
+        audit.setTableName(tableName);
+        audit.setRecordId(recordId);
+        audit.setAction(action);
+        audit.setChangedAt(changedAt);
+        audit.setChangedBy(user);
+        audit.setNewValues("{}");
+        return audit;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.erm.repositories;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.EmployeeSearchCursor;
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.support.CapturingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class EmployeeRepositoryTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Department engineering;
+
+    @BeforeEach
+    void setUp() {
+        engineering = new Department();
+        engineering.setDeptName("Engineering");
+        entityManager.persist(engineering);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(employee("Emp" + i, LocalDate.of(2020 + i % 2, 3, 1),
+                    i < 3 ? EmployeeStatus.ACTIVE : EmployeeStatus.ON_LEAVE));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    void findSlice_ShouldReportHasNextWithoutCounting() {
+        Slice<EmployeeResponseDTO> first = employeeRepository.findResponseSlice(Specification.where(null),
+                PageRequest.of(0, 2, Sort.by("empId")));
+        Slice<EmployeeResponseDTO> last = employeeRepository.findResponseSlice(Specification.where(null),
+                PageRequest.of(2, 2, Sort.by("empId")));
+
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(1, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+        assertTrue(CapturingStatementInspector.selects().stream()
+                .noneMatch(sql -> sql.toLowerCase().contains("count(")));
+    }
+
+    @Test
+    void findResponseById_ShouldJoinDepartmentAndManagerInOneStatement() {
+        Employee manager = employeeRepository.findAll(Sort.by("empId")).get(0);
+        Employee report = employee("Report", LocalDate.of(2022, 5, 1), EmployeeStatus.ACTIVE);
+        report.setManager(manager);
+        entityManager.persist(report);
+        entityManager.flush();
+        entityManager.clear();
+        CapturingStatementInspector.clear();
+
+        EmployeeResponseDTO dto = employeeRepository.findResponseById(report.getEmpId()).orElseThrow();
+
+        assertEquals(1, CapturingStatementInspector.selects().size());
+        assertEquals("Engineering", dto.getDepartmentName());
+        assertEquals(engineering.getDeptId(), dto.getDepartmentId());
+        assertEquals(manager.getEmpId(), dto.getManagerId());
+        assertEquals(manager.getFirstName() + " Tester", dto.getManagerName());
+    }
+
+    @Test
+    void findResponsePage_ShouldUseOneSelectPlusCountAcrossAllRows() {
+        Page<EmployeeResponseDTO> page = employeeRepository.findResponsePage(Specification.where(null),
+                PageRequest.of(1, 2, Sort.by("lastName", "empId")));
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(2, page.getNumberOfElements());
+        assertEquals(2, CapturingStatementInspector.selects().size());
+    }
+
+    @Test
+    void searchEmployeesAfter_ShouldWalkTiedSortKeysWithoutSkipsOrRepeats() {
+        // Hire dates alternate between two values, so most rows tie on the sort key and empId decides
+        List<Long> expected = employeeRepository.findAll(Sort.by("hireDate", "empId")).stream()
+                .map(Employee::getEmpId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        EmployeeSearchCursor after = null;
+        List<EmployeeResponseDTO> rows;
+        do {
+            rows = employeeRepository.searchEmployeesAfter(Specification.where(null), after, "hireDate", true, 2);
+            rows.forEach(row -> walked.add(row.getEmpId()));
+            if (!rows.isEmpty()) {
+                String token = EmployeeSearchCursor.of(rows.get(rows.size() - 1), "hireDate", "ASC").encode();
+                after = EmployeeSearchCursor.decode(token);
+            }
+        } while (rows.size() == 2);
+
+        assertEquals(expected, walked);
+        // The last slice comes back short
+        assertEquals(1, rows.size());
+    }
+
+    @Test
+    void searchEmployeesAfter_ShouldSeekBackwardsForDescendingOrder() {
+        List<EmployeeResponseDTO> first = employeeRepository.searchEmployeesAfter(Specification.where(null), null,
+                "empId", false, 3);
+        EmployeeSearchCursor after = EmployeeSearchCursor.of(first.get(2), "empId", "DESC");
+        List<EmployeeResponseDTO> rest = employeeRepository.searchEmployeesAfter(Specification.where(null), after,
+                "empId", false, 3);
+
+        assertEquals(2, rest.size());
+        assertTrue(rest.get(0).getEmpId() < first.get(2).getEmpId());
+        assertTrue(rest.get(1).getEmpId() < rest.get(0).getEmpId());
+    }
+
+    @Test
+    void cardinalityQueries_ShouldGroupByDepartmentStatusAndHireYear() {
+        List<Object[]> byDepartmentAndStatus = employeeRepository.countByDepartmentAndStatus();
+        List<Object[]> byHireYear = employeeRepository.countByHireYear();
+
+        assertEquals(5L, byDepartmentAndStatus.stream().mapToLong(row -> (Long) row[2]).sum());
+        assertEquals(2, byDepartmentAndStatus.size());
+        assertEquals(2, byHireYear.size());
+        assertEquals(5L, byHireYear.stream().mapToLong(row -> (Long) row[1]).sum());
+    }
+
+    private Employee employee(String name, LocalDate hireDate, EmployeeStatus status) {
+        Employee employee = new Employee();
+        employee.setFirstName(name);
+        employee.setLastName("Tester");
+        employee.setEmail(name.toLowerCase() + "@example.com");
+        employee.setHireDate(hireDate);
+        employee.setJobTitle("Engineer");
+        employee.setSalary(new BigDecimal("50000"));
+        employee.setStatus(status);
+        employee.setDepartment(engineering);
+        return employee;
+    }
+}
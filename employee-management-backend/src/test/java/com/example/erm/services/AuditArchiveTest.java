@@ -0,0 +1,112 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.entities.AuditFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditArchiveTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 3, 1, 8, 0, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    private final List<AuditTrailDTO> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Several blocks per segment, and rows sharing a changedAt so ties go to auditId
+        for (int i = 0; i < 700; i++) {
+            rows.add(new AuditTrailDTO((long) i + 1, i % 3 == 0 ? "departments" : "employees", (long) i % 40,
+                    i % 5 == 0 ? "DELETE" : "UPDATE", i % 4 == 0 ? "admin" : null, i % 4 == 0 ? 7L : null,
+                    START.plusMinutes(i / 2), "{\"salary\":" + i + "}", i % 5 == 0 ? null : "{\"salary\":" + (i + 1) + "}",
+                    i % 2 == 0 ? AuditFormat.DELTA : null));
+        }
+        AuditArchive archive = archive();
+        archive.append(rows.subList(0, 600));
+        archive.append(rows.subList(600, rows.size()));
+    }
+
+    @Test
+    void reopenedArchive_ShouldReturnEveryRowUnchanged() throws Exception {
+        Files.createFile(directory.resolve("segment-00000003.seg.tmp"));
+        AuditArchive reopened = archive();
+        reopened.open();
+
+        assertEquals(rows, reopened.find(new AuditSearchCriteria(), null, true, Integer.MAX_VALUE));
+        assertEquals(new AuditCursor("ASC", rows.get(699).getPerformedAt(), 700L), reopened.watermark());
+        assertFalse(Files.exists(directory.resolve("segment-00000003.seg.tmp")));
+        assertFalse(Files.getPosixFilePermissions(directory.resolve("segment-00000001.seg"))
+                .contains(PosixFilePermission.OWNER_WRITE));
+    }
+
+    @Test
+    void find_ShouldUseTheIndexesAndMatchAPlainFilter() throws Exception {
+        AuditArchive archive = archive();
+        archive.open();
+
+        AuditSearchCriteria byRecord = new AuditSearchCriteria();
+        byRecord.setTableName("employees");
+        byRecord.setRecordId(13L);
+        assertEquals(expected(byRecord, true), archive.find(byRecord, null, true, 1000));
+
+        AuditSearchCriteria byAuthorAndTime = new AuditSearchCriteria();
+        byAuthorAndTime.setChangedBy(7L);
+        byAuthorAndTime.setAction("UPDATE");
+        byAuthorAndTime.setChangedFrom(START.plusMinutes(100));
+        byAuthorAndTime.setChangedTo(START.plusMinutes(320));
+        assertEquals(expected(byAuthorAndTime, false), archive.find(byAuthorAndTime, null, false, 1000));
+
+        AuditSearchCriteria unknown = new AuditSearchCriteria();
+        unknown.setTableName("users");
+        assertTrue(archive.find(unknown, null, true, 1000).isEmpty());
+    }
+
+    @Test
+    void find_ShouldPageByCursorInBothDirections() throws Exception {
+        AuditArchive archive = archive();
+        archive.open();
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setRecordId(5L);
+
+        for (boolean ascending : new boolean[]{true, false}) {
+            List<AuditTrailDTO> paged = new ArrayList<>();
+            AuditCursor after = null;
+            List<AuditTrailDTO> slice;
+            do {
+                slice = archive.find(criteria, after, ascending, 4);
+                paged.addAll(slice);
+                after = slice.isEmpty() ? null : AuditCursor.of(slice.get(slice.size() - 1), "ASC");
+            } while (slice.size() == 4);
+            assertEquals(expected(criteria, ascending), paged);
+        }
+    }
+
+    private List<AuditTrailDTO> expected(AuditSearchCriteria criteria, boolean ascending) {
+        List<AuditTrailDTO> matching = new ArrayList<>(rows.stream()
+                .filter(row -> AuditSegment.matches(row, criteria, null, true))
+                .toList());
+        if (!ascending) {
+            matching.sort(AuditSegment.KEY_ORDER.reversed());
+        }
+        return matching;
+    }
+
+    private AuditArchive archive() {
+        return new AuditArchive(directory.toString(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.AuditSearchCriteria;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.dto.AuditVersionDTO;
+import com.example.erm.dto.CursorSlice;
+import com.example.erm.entities.AuditFormat;
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.repositories.AuditRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A three-row query limit makes history replay span several statements across the archive and live rows
+@SpringBootTest(properties = {"erm.audit.archive.segment-rows=4", "erm.audit.query.max-size=3"})
+@ActiveProfiles("h2")
+// The archive directory lives as long as the class, so the test that expects it empty runs first
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AuditArchiverTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("erm.audit.archive.directory", directory::toString);
+    }
+
+    @Autowired
+    private AuditArchiver auditArchiver;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Salary of record 1 goes 1000 -> 1001 -> ... one day at a time
+        for (int i = 0; i < 10; i++) {
+            AuditTrail audit = new AuditTrail();
+            audit.setTableName("employees");
+            audit.setRecordId(1L + i % 2);
+            audit.setAction("UPDATE");
+            audit.setFormat(AuditFormat.DELTA);
+            audit.setOldValues("{\"salary\":" + (1000 + i) + "}");
+            audit.setNewValues("{\"salary\":" + (1001 + i) + "}");
+            audit.setChangedAt(START.plusDays(i));
+            auditRepository.save(audit);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditRepository.deleteAll();
+    }
+
+    @Test
+    @Order(1)
+    void archive_ShouldMoveOldRowsAndKeepThemQueryable() {
+        List<AuditTrailDTO> before = searchAll();
+
+        long moved = auditArchiver.archive(START.plusDays(7));
+
+        assertEquals(7, moved);
+        assertEquals(3, auditRepository.count());
+        assertEquals(7, auditArchiver.archive(START.plusDays(7)) + moved);
+
+        // Paging walks from the live rows into the archive without gaps or repeats
+        assertEquals(before.stream().map(AuditTrailDTO::getAuditId).toList(),
+                searchAll().stream().map(AuditTrailDTO::getAuditId).toList());
+
+        List<AuditVersionDTO> history = new ArrayList<>();
+        CursorSlice<AuditVersionDTO> versions;
+        String after = null;
+        do {
+            versions = auditService.getHistory("employees", 1L, after, 2);
+            history.addAll(versions.getContent());
+            after = versions.getNextCursor();
+        } while (versions.isHasNext());
+        assertEquals(5, history.size());
+        assertEquals(1009, history.get(4).getAfter().get("salary"));
+    }
+
+    @Test
+    @Order(2)
+    void archive_ShouldKeepARowThatCommitsBehindTheWatermark() {
+        auditArchiver.archive(START.plusDays(7));
+
+        // Built before the segment was cut, committed after it, e.g. replayed from the journal
+        AuditTrail late = new AuditTrail();
+        late.setTableName("employees");
+        late.setRecordId(3L);
+        late.setAction("UPDATE");
+        late.setFormat(AuditFormat.DELTA);
+        late.setOldValues("{\"salary\":1}");
+        late.setNewValues("{\"salary\":2}");
+        late.setChangedAt(START.plusDays(1));
+        late = auditRepository.save(late);
+
+        auditArchiver.archive(START.plusDays(8));
+
+        assertTrue(auditRepository.existsById(late.getAuditId()));
+        assertEquals(1, auditService.getHistory("employees", 3L, null, 3).getContent().size());
+    }
+
+    private List<AuditTrailDTO> searchAll() {
+        List<AuditTrailDTO> rows = new ArrayList<>();
+        String after = null;
+        CursorSlice<AuditTrailDTO> slice;
+        do {
+            slice = auditService.search(pageOf(3, after));
+            rows.addAll(slice.getContent());
+            after = slice.getNextCursor();
+        } while (slice.isHasNext());
+        return rows;
+    }
+
+    private AuditSearchCriteria pageOf(int size, String after) {
+        AuditSearchCriteria criteria = new AuditSearchCriteria();
+        criteria.setSize(size);
+        criteria.setAfter(after);
+        return criteria;
+    }
+}
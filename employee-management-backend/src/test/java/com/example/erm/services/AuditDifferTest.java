@@ -0,0 +1,100 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditDifferTest {
+
+    private final AuditDiffer differ = new AuditDiffer(new AuditSnapshotCodec(new ObjectMapper()));
+
+    @Test
+    void diff_ShouldKeepOnlyTheChangedProperty() {
+        Employee before = employee(new BigDecimal("1000.00"));
+        Employee after = employee(new BigDecimal("1200"));
+
+        AuditDiffer.Delta delta = differ.diff(before, after);
+
+        assertEquals(Map.of("salary", new BigDecimal("1000.00")), delta.before());
+        assertEquals(Map.of("salary", new BigDecimal("1200")), delta.after());
+    }
+
+    @Test
+    void diff_ShouldTreatEqualDecimalsOfDifferentScaleAsUnchanged() {
+        assertTrue(differ.diff(employee(new BigDecimal("1000")), employee(new BigDecimal("1000.00"))).isEmpty());
+    }
+
+    @Test
+    void diff_ShouldCompareAssociationsById() {
+        Employee before = employee(BigDecimal.TEN);
+        Employee after = employee(BigDecimal.TEN);
+        Department moved = new Department();
+        moved.setDeptId(9L);
+        after.setDepartment(moved);
+
+        AuditDiffer.Delta delta = differ.diff(before, after);
+
+        assertEquals(Map.of("department", 3L), delta.before());
+        assertEquals(Map.of("department", 9L), delta.after());
+    }
+
+    @Test
+    void diff_ShouldListEveryNonNullPropertyOnCreate() {
+        AuditDiffer.Delta delta = differ.diff(null, employee(BigDecimal.TEN));
+
+        assertTrue(delta.before().isEmpty());
+        assertEquals(List.of("empId", "firstName", "lastName", "email", "hireDate", "jobTitle", "department",
+                "salary", "status"), List.copyOf(delta.after().keySet()));
+    }
+
+    @Test
+    void diff_ShouldRedactPasswordHashesAndSkipCollections() {
+        User before = new User();
+        before.setUserId(1L);
+        before.setUsername("jdoe");
+        before.setPasswordHash("$2a$old");
+        before.setRole(UserRole.HR);
+        User after = new User();
+        after.setUserId(1L);
+        after.setUsername("jdoe");
+        after.setPasswordHash("$2a$new");
+        after.setRole(UserRole.HR);
+
+        AuditDiffer.Delta delta = differ.diff(before, after);
+
+        assertEquals(Map.of("passwordHash", AuditDiffer.REDACTED), delta.before());
+        assertEquals(Map.of("passwordHash", AuditDiffer.REDACTED), delta.after());
+
+        Department department = new Department();
+        department.setDeptName("Finance");
+        department.getUsers().add(after);
+        assertEquals(Map.of("deptName", "Finance"), differ.diff(null, department).after());
+    }
+
+    private Employee employee(BigDecimal salary) {
+        Department department = new Department();
+        department.setDeptId(3L);
+        Employee employee = new Employee();
+        employee.setEmpId(42L);
+        employee.setFirstName("Ada");
+        employee.setLastName("Lovelace");
+        employee.setEmail("ada@example.com");
+        employee.setHireDate(LocalDate.of(2020, 1, 15));
+        employee.setJobTitle("Engineer");
+        employee.setDepartment(department);
+        employee.setSalary(salary);
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        return employee;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.AuditFormat;
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.entities.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditJournalTest {
+
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2024, 2, 29, 17, 45, 12, 250_000_000);
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void append_ShouldShareFsyncsBetweenConcurrentWriters() throws Exception {
+        AuditJournal journal = AuditJournal.open(directory, 1024 * 1024, meterRegistry);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                long recordId = i;
+                appends.add(pool.submit(() -> {
+                    journal.append(audit(recordId));
+                    return null;
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<AuditJournal.Entry> entries = journal.read(1000);
+        assertEquals(400, entries.size());
+        assertEquals(400, entries.stream().map(entry -> entry.audit().getRecordId()).distinct().count());
+        assertEquals(400.0, meterRegistry.get("erm.audit.journal.sync.entries").summary().totalAmount());
+        assertTrue(meterRegistry.get("erm.audit.journal.sync.entries").summary().count() <= 400);
+    }
+
+    @Test
+    void read_ShouldRoundTripEveryField() throws Exception {
+        AuditJournal journal = AuditJournal.open(directory, 64 * 1024, meterRegistry);
+        AuditTrail audit = audit(42L);
+        journal.append(audit);
+
+        AuditTrail read = journal.read(10).get(0).audit();
+        assertEquals("employees", read.getTableName());
+        assertEquals(42L, read.getRecordId());
+        assertEquals("UPDATE", read.getAction());
+        assertEquals(CHANGED_AT, read.getChangedAt());
+        assertEquals(9L, read.getChangedBy().getUserId());
+        assertEquals("{\"salary\":1000}", read.getOldValues());
+        assertEquals("{\"salary\":\"ü€\"}", read.getNewValues());
+        assertEquals(AuditFormat.DELTA, read.getFormat());
+        assertNull(read.getAuditId());
+    }
+
+    @Test
+    void open_ShouldReplayFromTheCheckpointAndIgnoreATornTail() throws Exception {
+        AuditJournal journal = AuditJournal.open(directory, 64 * 1024, meterRegistry);
+        for (long i = 1; i <= 3; i++) {
+            journal.append(audit(i));
+        }
+        journal.checkpoint(journal.read(1).get(0).end());
+        long end = journal.read(10).get(1).end();
+        // A half-written fourth entry: length present, payload and checksum never made it
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 500), end);
+        }
+
+        AuditJournal reopened = AuditJournal.open(directory, 64 * 1024, new SimpleMeterRegistry());
+        assertEquals(List.of(2L, 3L), recordIds(reopened.read(10)));
+
+        reopened.append(audit(4L));
+        assertEquals(List.of(2L, 3L, 4L), recordIds(reopened.read(10)));
+        assertEquals(List.of(2L, 3L, 4L),
+                recordIds(AuditJournal.open(directory, 64 * 1024, new SimpleMeterRegistry()).read(10)));
+    }
+
+    @Test
+    void checkpoint_ShouldDeleteSegmentsThatWereFullyDrained() throws Exception {
+        AuditJournal journal = AuditJournal.open(directory, 1024, meterRegistry);
+        for (long i = 0; i < 40; i++) {
+            journal.append(audit(i));
+        }
+        assertTrue(segmentCount() > 2);
+
+        List<AuditJournal.Entry> entries = journal.read(100);
+        assertEquals(40, entries.size());
+        journal.checkpoint(entries.get(entries.size() - 1).end());
+
+        assertEquals(1, segmentCount());
+        assertEquals(0, journal.backlog());
+        assertTrue(journal.read(100).isEmpty());
+    }
+
+    private List<Long> recordIds(List<AuditJournal.Entry> entries) {
+        return entries.stream().map(entry -> entry.audit().getRecordId()).toList();
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-")).count();
+        }
+    }
+
+    private AuditTrail audit(long recordId) {
+        User user = new User();
+        user.setUserId(9L);
+        AuditTrail audit = new AuditTrail();
+        audit.setTableName("employees");
+        audit.setRecordId(recordId);
+        audit.setAction("UPDATE");
+        audit.setChangedAt(CHANGED_AT);
+        audit.setChangedBy(user);
+        audit.setOldValues("{\"salary\":1000}");
+        audit.setNewValues("{\"salary\":\"ü€\"}");
+        audit.setFormat(AuditFormat.DELTA);
+        return audit;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.AuditCursor;
+import com.example.erm.dto.AuditTrailDTO;
+import com.example.erm.dto.AuditVersionDTO;
+import com.example.erm.dto.CursorSlice;
+import com.example.erm.entities.AuditFormat;
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.exceptions.ValidationException;
+import com.example.erm.repositories.AuditRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditServiceTest {
+
+    private AuditRepository auditRepository;
+    private AuditWriter auditWriter;
+    private ObjectMapper objectMapper;
+    private AuditService auditService;
+    private final List<AuditTrail> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        auditRepository = mock(AuditRepository.class);
+        auditWriter = mock(AuditWriter.class);
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        AuditSnapshotCodec snapshotCodec = new AuditSnapshotCodec(objectMapper);
+        auditService = new AuditService(auditRepository, auditWriter, new AuditDiffer(snapshotCodec),
+                mock(AuditArchive.class), snapshotCodec, objectMapper, AuditFormat.DELTA, 500);
+        doAnswer(invocation -> written.add(invocation.getArgument(0))).when(auditWriter).write(any());
+    }
+
+    @Test
+    void logActivity_ShouldStoreOnlyChangedFields() {
+        Employee before = employee(new BigDecimal("1000"), EmployeeStatus.ACTIVE);
+        Employee after = employee(new BigDecimal("1200"), EmployeeStatus.ACTIVE);
+
+        auditService.logActivity("employees", 42L, "UPDATE", before, after, null);
+
+        ArgumentCaptor<AuditTrail> audit = ArgumentCaptor.forClass(AuditTrail.class);
+        verify(auditWriter).write(audit.capture());
+        assertEquals(AuditFormat.DELTA, audit.getValue().getFormat());
+        assertEquals("{\"salary\":1000}", audit.getValue().getOldValues());
+        assertEquals("{\"salary\":1200}", audit.getValue().getNewValues());
+    }
+
+    @Test
+    void getHistory_ShouldRebuildFullViewsFromDeltas() {
+        Employee created = employee(new BigDecimal("1000"), EmployeeStatus.ACTIVE);
+        Employee raised = employee(new BigDecimal("1200"), EmployeeStatus.ACTIVE);
+        Employee deleted = employee(new BigDecimal("1200"), EmployeeStatus.INACTIVE);
+        auditService.logActivity("employees", 42L, "CREATE", null, created, null);
+        auditService.logActivity("employees", 42L, "UPDATE", created, raised, null);
+        auditService.logActivity("employees", 42L, "DELETE", raised, deleted, null);
+        when(auditRepository.searchAfter(any(), isNull(), eq(true), anyInt()))
+                .thenReturn(written.stream().map(AuditServiceTest::toDto).toList());
+
+        List<AuditVersionDTO> history = auditService.getHistory("employees", 42L, null, null).getContent();
+
+        assertEquals(3, history.size());
+        assertNull(history.get(0).getBefore());
+        assertEquals("Ada", history.get(0).getAfter().get("firstName"));
+
+        AuditVersionDTO raise = history.get(1);
+        assertEquals(List.of("salary"), raise.getChangedFields());
+        assertEquals(1000, raise.getBefore().get("salary"));
+        assertEquals(1200, raise.getAfter().get("salary"));
+        assertEquals("2020-01-15", raise.getAfter().get("hireDate"));
+        assertEquals(3, raise.getAfter().get("department"));
+
+        AuditVersionDTO delete = history.get(2);
+        assertEquals(List.of("status"), delete.getChangedFields());
+        assertEquals("ACTIVE", delete.getBefore().get("status"));
+        assertEquals("INACTIVE", delete.getAfter().get("status"));
+        assertEquals(1200, delete.getAfter().get("salary"));
+    }
+
+    @Test
+    void getHistory_ShouldReadLegacySnapshotRows() {
+        AuditTrail legacy = new AuditTrail();
+        legacy.setAction("UPDATE");
+        legacy.setOldValues("{\"deptName\":\"Ops\"}");
+        legacy.setNewValues("{\"deptName\":\"Operations\"}");
+        when(auditRepository.searchAfter(any(), isNull(), eq(true), anyInt())).thenReturn(List.of(toDto(legacy)));
+
+        AuditVersionDTO version = auditService.getHistory("departments", 5L, null, null).getContent().get(0);
+
+        assertEquals("Ops", version.getBefore().get("deptName"));
+        assertEquals("Operations", version.getAfter().get("deptName"));
+        assertEquals(List.of("deptName"), version.getChangedFields());
+    }
+
+    @Test
+    void getHistory_ShouldCarryFullViewsAcrossSlices() {
+        AuditService pagedService = new AuditService(auditRepository, auditWriter,
+                new AuditDiffer(new AuditSnapshotCodec(objectMapper)), mock(AuditArchive.class),
+                new AuditSnapshotCodec(objectMapper), objectMapper, AuditFormat.DELTA, 2);
+        Employee created = employee(new BigDecimal("1000"), EmployeeStatus.ACTIVE);
+        Employee raised = employee(new BigDecimal("1200"), EmployeeStatus.ACTIVE);
+        Employee deleted = employee(new BigDecimal("1200"), EmployeeStatus.INACTIVE);
+        pagedService.logActivity("employees", 42L, "CREATE", null, created, null);
+        pagedService.logActivity("employees", 42L, "UPDATE", created, raised, null);
+        pagedService.logActivity("employees", 42L, "DELETE", raised, deleted, null);
+        for (int i = 0; i < written.size(); i++) {
+            written.get(i).setAuditId(i + 1L);
+            written.get(i).setChangedAt(LocalDateTime.of(2024, 1, 1 + i, 0, 0));
+        }
+        // Keyset reads over the three rows, at most two per statement
+        when(auditRepository.searchAfter(any(), any(), eq(true), anyInt())).thenAnswer(invocation -> {
+            AuditCursor after = invocation.getArgument(1);
+            int limit = invocation.getArgument(3);
+            return written.stream()
+                    .filter(audit -> after == null || audit.getAuditId() > after.getLastAuditId())
+                    .limit(limit)
+                    .map(AuditServiceTest::toDto)
+                    .toList();
+        });
+
+        CursorSlice<AuditVersionDTO> first = pagedService.getHistory("employees", 42L, null, 1);
+        CursorSlice<AuditVersionDTO> second = pagedService.getHistory("employees", 42L, first.getNextCursor(), 1);
+        CursorSlice<AuditVersionDTO> third = pagedService.getHistory("employees", 42L, second.getNextCursor(), 1);
+
+        assertEquals(List.of(1L, 2L, 3L), List.of(first.getContent().get(0).getAuditId(),
+                second.getContent().get(0).getAuditId(), third.getContent().get(0).getAuditId()));
+        assertTrue(second.isHasNext());
+        assertFalse(third.isHasNext());
+        // The third slice starts past a statement boundary and still sees the state the first row set
+        AuditVersionDTO delete = third.getContent().get(0);
+        assertEquals("Ada", delete.getBefore().get("firstName"));
+        assertEquals(1200, delete.getAfter().get("salary"));
+    }
+
+    @Test
+    void getHistory_ShouldRejectACursorFromANewestFirstSearch() {
+        String searchCursor = new AuditCursor("DESC", LocalDateTime.of(2024, 1, 1, 0, 0), 7L).encode();
+
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> auditService.getHistory("employees", 42L, searchCursor, null));
+
+        assertTrue(e.getErrors().containsKey("after"));
+        verifyNoInteractions(auditRepository);
+    }
+
+    private static AuditTrailDTO toDto(AuditTrail audit) {
+        return new AuditTrailDTO(audit.getAuditId(), audit.getTableName(), audit.getRecordId(), audit.getAction(),
+                null, null, audit.getChangedAt(), audit.getOldValues(), audit.getNewValues(), audit.getFormat());
+    }
+
+    private Employee employee(BigDecimal salary, EmployeeStatus status) {
+        Department department = new Department();
+        department.setDeptId(3L);
+        Employee employee = new Employee();
+        employee.setEmpId(42L);
+        employee.setFirstName("Ada");
+        employee.setLastName("Lovelace");
+        employee.setEmail("ada@example.com");
+        employee.setHireDate(LocalDate.of(2020, 1, 15));
+        employee.setJobTitle("Engineer");
+        employee.setDepartment(department);
+        employee.setSalary(salary);
+        employee.setStatus(status);
+        return employee;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditSnapshotCodecTest {
+
+    // Configured like Spring Boot's auto-configured ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final AuditSnapshotCodec codec = new AuditSnapshotCodec(objectMapper);
+
+    @Test
+    void write_ShouldMatchJacksonForAnEmployee() throws Exception {
+        Employee employee = employee();
+
+        ObjectNode expected = (ObjectNode) objectMapper.readTree(objectMapper.writeValueAsString(employee));
+        // The optimistic lock version is bookkeeping and stays out of audit values
+        expected.remove("version");
+        assertEquals(expected, objectMapper.readTree(codec.write(employee)));
+    }
+
+    @Test
+    void write_ShouldSkipCollectionsAndRedactPasswordHashes() throws Exception {
+        User user = new User();
+        user.setUserId(3L);
+        user.setUsername("hr.lead");
+        user.setPasswordHash("$2a$10$secret");
+        user.setRole(UserRole.HR);
+        user.setEmail("hr@example.com");
+        Department department = new Department();
+        department.setDeptId(4L);
+        department.setDeptName("People");
+        department.getUsers().add(user);
+        user.setDepartment(department);
+
+        JsonNode departmentJson = objectMapper.readTree(codec.write(department));
+        assertEquals(3, departmentJson.size());
+        assertFalse(departmentJson.has("users"));
+
+        JsonNode userJson = objectMapper.readTree(codec.write(user));
+        assertEquals(AuditDiffer.REDACTED, userJson.get("passwordHash").asText());
+        assertEquals(4L, userJson.get("department").asLong());
+    }
+
+    @Test
+    void write_ShouldEscapeText() throws Exception {
+        Employee employee = employee();
+        employee.setJobTitle("Lead \"R&D\"\\\n\ttools\u0001 – ünïcode");
+
+        assertEquals(employee.getJobTitle(), objectMapper.readTree(codec.write(employee)).get("jobTitle").asText());
+    }
+
+    @Test
+    void write_ShouldMatchJacksonForDeltaMaps() throws Exception {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("salary", new BigDecimal("1234.50"));
+        delta.put("status", EmployeeStatus.ON_LEAVE);
+        delta.put("hireDate", LocalDate.of(2019, 7, 1));
+        delta.put("updatedAt", LocalDateTime.of(2024, 1, 2, 3, 4));
+        delta.put("manager", 12L);
+        delta.put("jobTitle", null);
+
+        assertEquals(objectMapper.writeValueAsString(delta), codec.write(delta));
+    }
+
+    private Employee employee() {
+        Department department = new Department();
+        department.setDeptId(2L);
+        Employee manager = new Employee();
+        manager.setEmpId(1L);
+        User creator = new User();
+        creator.setUserId(5L);
+
+        Employee employee = new Employee();
+        employee.setEmpId(7L);
+        employee.setFirstName("Grace");
+        employee.setLastName("Hopper");
+        employee.setEmail("grace@example.com");
+        employee.setHireDate(LocalDate.of(2018, 9, 3));
+        employee.setJobTitle("Rear Admiral");
+        employee.setDepartment(department);
+        employee.setManager(manager);
+        employee.setSalary(new BigDecimal("98000.00"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        employee.setCreatedAt(LocalDateTime.of(2018, 9, 3, 9, 0));
+        employee.setUpdatedAt(LocalDateTime.of(2023, 11, 20, 16, 42, 7, 120_000_000));
+        employee.setCreatedBy(creator);
+        return employee;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.AuditTrail;
+import com.example.erm.repositories.AuditRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuditWriterTest {
+
+    private AuditRepository auditRepository;
+    private EntityManager entityManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @TempDir
+    Path journalDirectory;
+
+    @BeforeEach
+    void setUp() {
+        auditRepository = mock(AuditRepository.class);
+        entityManager = mock(EntityManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void sync_ShouldSaveInsideTheCallersTransaction() {
+        AuditWriter writer = writer(AuditWriter.Mode.SYNC, AuditWriter.Overflow.BLOCK, 10);
+
+        writer.write(audit());
+
+        verify(auditRepository).save(any(AuditTrail.class));
+        assertEquals(0.0, queueDepth());
+    }
+
+    @Test
+    void async_ShouldQueueOnlyOnceTheTransactionCommits() {
+        AuditWriter writer = writer(AuditWriter.Mode.ASYNC, AuditWriter.Overflow.BLOCK, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.write(audit());
+        assertEquals(0.0, queueDepth());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1.0, queueDepth());
+        verifyNoInteractions(auditRepository, entityManager);
+    }
+
+    @Test
+    void async_ShouldDiscardRowsOfRolledBackTransactions() {
+        AuditWriter writer = writer(AuditWriter.Mode.ASYNC, AuditWriter.Overflow.BLOCK, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.write(audit());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0.0, queueDepth());
+    }
+
+    @Test
+    void dropOverflow_ShouldCountRowsThatDoNotFit() throws Exception {
+        AuditWriter writer = writer(AuditWriter.Mode.ASYNC, AuditWriter.Overflow.DROP, 1);
+
+        writer.write(audit());
+        writer.write(audit());
+
+        assertEquals(1.0, queueDepth());
+        assertEquals(1.0, meterRegistry.get("erm.audit.dropped").counter().count());
+        assertFalse(writer.awaitIdle(Duration.ofMillis(20)));
+    }
+
+    @Test
+    void callerRunsOverflow_ShouldWriteOnTheCallingThread() {
+        AuditWriter writer = writer(AuditWriter.Mode.ASYNC, AuditWriter.Overflow.CALLER_RUNS, 1);
+
+        writer.write(audit());
+        writer.write(audit());
+
+        verify(entityManager).persist(any(AuditTrail.class));
+        assertEquals(1.0, meterRegistry.get("erm.audit.caller-runs").counter().count());
+        assertEquals(1.0, meterRegistry.get("erm.audit.written").counter().count());
+        assertEquals(1L, meterRegistry.get("erm.audit.flush.latency").timer().count());
+    }
+
+    @Test
+    void flusher_ShouldDrainTheQueueInTheBackground() throws Exception {
+        AuditWriter writer = writer(AuditWriter.Mode.ASYNC, AuditWriter.Overflow.BLOCK, 100);
+        for (int i = 0; i < 5; i++) {
+            writer.write(audit());
+        }
+
+        writer.start();
+        try {
+            assertTrue(writer.awaitIdle(Duration.ofSeconds(5)));
+        } finally {
+            writer.stop();
+        }
+
+        verify(entityManager, times(5)).persist(any(AuditTrail.class));
+        assertEquals(5.0, meterRegistry.get("erm.audit.written").counter().count());
+    }
+
+    @Test
+    void flusher_ShouldHoldTheBatchWhileTheDatabaseIsDown() throws Exception {
+        AuditWriter writer = writer(AuditWriter.Mode.ASYNC, AuditWriter.Overflow.BLOCK, 100);
+        doThrow(new CannotCreateTransactionException("database down"))
+                .doThrow(new CannotCreateTransactionException("database down"))
+                .doNothing()
+                .when(entityManager).persist(any(AuditTrail.class));
+        writer.write(audit());
+
+        writer.start();
+        try {
+            assertTrue(writer.awaitIdle(Duration.ofSeconds(5)));
+        } finally {
+            writer.stop();
+        }
+
+        verify(entityManager, times(3)).persist(any(AuditTrail.class));
+        assertEquals(2.0, meterRegistry.get("erm.audit.flush.retries").counter().count());
+        assertEquals(1.0, meterRegistry.get("erm.audit.written").counter().count());
+        assertEquals(0.0, meterRegistry.get("erm.audit.failed").counter().count());
+    }
+
+    @Test
+    void flusher_ShouldSkipOnlyTheRowThatViolatesAConstraint() throws Exception {
+        AuditWriter writer = writer(AuditWriter.Mode.ASYNC, AuditWriter.Overflow.BLOCK, 100);
+        // The batch insert fails on its second row, the one-by-one retry fails on that row again
+        doNothing()
+                .doThrow(new DataIntegrityViolationException("bad row"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("bad row"))
+                .doNothing()
+                .when(entityManager).persist(any(AuditTrail.class));
+        for (int i = 0; i < 3; i++) {
+            writer.write(audit());
+        }
+
+        writer.start();
+        try {
+            assertTrue(writer.awaitIdle(Duration.ofSeconds(5)));
+        } finally {
+            writer.stop();
+        }
+
+        assertEquals(2.0, meterRegistry.get("erm.audit.written").counter().count());
+        assertEquals(1.0, meterRegistry.get("erm.audit.failed").counter().count());
+    }
+
+    @Test
+    void journal_ShouldAppendAtCommitAndDrainInTheBackground() throws Exception {
+        AuditWriter writer = writer(AuditWriter.Mode.JOURNAL, AuditWriter.Overflow.BLOCK, 10);
+        writer.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                writer.write(audit());
+            }
+            assertTrue(writer.awaitIdle(Duration.ofSeconds(5)));
+        } finally {
+            writer.stop();
+        }
+
+        verify(entityManager, times(5)).persist(any(AuditTrail.class));
+        assertEquals(5.0, meterRegistry.get("erm.audit.written").counter().count());
+    }
+
+    @Test
+    void journal_ShouldKeepRowsWhileTheDatabaseIsDown() throws Exception {
+        AuditWriter writer = writer(AuditWriter.Mode.JOURNAL, AuditWriter.Overflow.BLOCK, 10);
+        doThrow(new CannotCreateTransactionException("database down"))
+                .doThrow(new CannotCreateTransactionException("database down"))
+                .doNothing()
+                .when(entityManager).persist(any(AuditTrail.class));
+        writer.start();
+        try {
+            writer.write(audit());
+            assertTrue(writer.awaitIdle(Duration.ofSeconds(5)));
+        } finally {
+            writer.stop();
+        }
+
+        verify(entityManager, times(3)).persist(any(AuditTrail.class));
+        assertEquals(2.0, meterRegistry.get("erm.audit.journal.drain.retries").counter().count());
+        assertEquals(1.0, meterRegistry.get("erm.audit.written").counter().count());
+    }
+
+    @Test
+    void journal_ShouldReplayUndrainedEntriesOnStartup() throws Exception {
+        AuditJournal journal = AuditJournal.open(journalDirectory, 64 * 1024, meterRegistry);
+        journal.append(audit());
+        journal.append(audit());
+
+        AuditWriter writer = writer(AuditWriter.Mode.SYNC, AuditWriter.Overflow.BLOCK, 10);
+        writer.start();
+
+        verify(entityManager, times(2)).persist(any(AuditTrail.class));
+        assertEquals(0, AuditJournal.open(journalDirectory, 64 * 1024, new SimpleMeterRegistry()).backlog());
+    }
+
+    // The flusher thread is only started where a test asks for it, so queued rows stay observable
+    private AuditWriter writer(AuditWriter.Mode mode, AuditWriter.Overflow overflow, int capacity) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AuditWriter writer = new AuditWriter(auditRepository, transactionManager, meterRegistry,
+                mode, overflow, capacity, 50, Duration.ofMillis(10), journalDirectory.toString(), DataSize.ofKilobytes(64));
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+        return writer;
+    }
+
+    private double queueDepth() {
+        return meterRegistry.get("erm.audit.queue.depth").gauge().value();
+    }
+
+    private AuditTrail audit() {
+        AuditTrail audit = new AuditTrail();
+        audit.setTableName("employees");
+        audit.setRecordId(1L);
+        audit.setAction("UPDATE");
+        return audit;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.ExportFormat;
+import com.example.erm.entities.EmployeeStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeExportWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void csv_ShouldQuoteOnlyFieldsThatNeedIt() throws Exception {
+        StringWriter out = new StringWriter();
+        EmployeeExportWriter writer = EmployeeExportWriter.create(ExportFormat.CSV, out, objectMapper);
+
+        writer.begin();
+        writer.write(employee(1L, "Ada", "Research, \"Labs\""));
+        writer.flush();
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(String.join(",", EmployeeExportWriter.CSV_COLUMNS), lines[0]);
+        assertEquals("1,Ada,Lovelace,ada@example.com,2020-01-15,\"Research, \"\"Labs\"\"\",1000,ACTIVE,,,,",
+                lines[1]);
+    }
+
+    @Test
+    void ndjson_ShouldWriteOneObjectPerLineAndKeepTheWriterOpen() throws Exception {
+        StringWriter out = new StringWriter();
+        EmployeeExportWriter writer = EmployeeExportWriter.create(ExportFormat.NDJSON, out, objectMapper);
+
+        writer.begin();
+        writer.write(employee(1L, "Ada", "Engineer"));
+        writer.write(employee(2L, "Grace", "Engineer"));
+        writer.flush();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("empId").asLong());
+        assertEquals("2020-01-15", objectMapper.readTree(lines[1]).get("hireDate").asText());
+    }
+
+    private EmployeeResponseDTO employee(Long id, String firstName, String jobTitle) {
+        EmployeeResponseDTO employee = new EmployeeResponseDTO();
+        employee.setEmpId(id);
+        employee.setFirstName(firstName);
+        employee.setLastName("Lovelace");
+        employee.setEmail(firstName.toLowerCase() + "@example.com");
+        employee.setHireDate(LocalDate.of(2020, 1, 15));
+        employee.setJobTitle(jobTitle);
+        employee.setSalary(new BigDecimal("1000"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        return employee;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.ExportFormat;
+import com.example.erm.entities.EmployeeStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeImportReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void csv_ShouldMatchColumnsByNameAndHandleQuotedFields() throws Exception {
+        String csv = "empId,firstName,lastName,email,hireDate,jobTitle,salary,status,departmentId\r\n"
+                + "99,Ada,Lovelace,ada@example.com,2020-01-15,\"Research, \"\"Labs\"\"\nand more\",1000.50,on_leave,3\r\n"
+                + "\r\n"
+                + "100,Grace,Hopper,grace@example.com,not-a-date,Engineer,,,3\r\n";
+        EmployeeImportReader reader = EmployeeImportReader.create(ExportFormat.CSV, new StringReader(csv), objectMapper);
+
+        EmployeeImportReader.Row first = reader.next();
+        assertTrue(first.isValid());
+        assertEquals(2, first.line());
+        assertNull(first.employee().getEmpId());
+        assertEquals("Research, \"Labs\"\nand more", first.employee().getJobTitle());
+        assertEquals(new BigDecimal("1000.50"), first.employee().getSalary());
+        assertEquals(EmployeeStatus.ON_LEAVE, first.employee().getStatus());
+        assertEquals(LocalDate.of(2020, 1, 15), first.employee().getHireDate());
+
+        EmployeeImportReader.Row second = reader.next();
+        assertEquals(5, second.line());
+        assertEquals("Invalid value 'not-a-date'", second.errors().get("hireDate"));
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void ndjson_ShouldReportUnparseableLinesWithoutStopping() throws Exception {
+        String ndjson = "{\"firstName\":\"Ada\",\"departmentId\":3}\n{not json}\n{\"firstName\":\"Grace\"}\n";
+        EmployeeImportReader reader = EmployeeImportReader.create(ExportFormat.NDJSON, new StringReader(ndjson), objectMapper);
+
+        assertEquals("Ada", reader.next().employee().getFirstName());
+        EmployeeImportReader.Row broken = reader.next();
+        assertFalse(broken.isValid());
+        assertEquals(2, broken.line());
+        assertEquals("Grace", reader.next().employee().getFirstName());
+        assertNull(reader.next());
+    }
+}
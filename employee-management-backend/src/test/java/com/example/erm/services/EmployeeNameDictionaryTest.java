@@ -0,0 +1,76 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeSuggestionDTO;
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.repositories.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeNameDictionaryTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeNameDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        when(employeeRepository.findAllNameEntries()).thenReturn(List.of(
+                new Object[]{1L, "John", "Smith", 10L, EmployeeStatus.ACTIVE},
+                new Object[]{2L, "Johanna", "Berg", 20L, EmployeeStatus.ACTIVE},
+                new Object[]{3L, "Jonas", "Smithson", 10L, EmployeeStatus.INACTIVE}
+        ));
+        dictionary = new EmployeeNameDictionary(employeeRepository);
+        dictionary.rebuild();
+    }
+
+    @Test
+    void suggest_ShouldMatchFirstOrLastNamePrefix() {
+        assertEquals(List.of(2L, 1L), ids(dictionary.suggest("Joh", 10, null)));
+        assertEquals(List.of(1L), ids(dictionary.suggest("smi", 10, null)));
+    }
+
+    @Test
+    void suggest_ShouldRestrictToDepartmentAndLimit() {
+        assertEquals(List.of(1L), ids(dictionary.suggest("jo", 10, 10L)));
+        assertEquals(1, dictionary.suggest("jo", 1, null).size());
+        assertTrue(dictionary.suggest("jo", 10, 99L).isEmpty());
+    }
+
+    @Test
+    void indexAfterCommit_ShouldMoveRenamedAndDropInactiveEmployees() {
+        Department department = new Department();
+        department.setDeptId(20L);
+        Employee renamed = new Employee();
+        renamed.setEmpId(1L);
+        renamed.setFirstName("Jack");
+        renamed.setLastName("Smith");
+        renamed.setDepartment(department);
+        renamed.setStatus(EmployeeStatus.ACTIVE);
+
+        dictionary.indexAfterCommit(renamed);
+
+        assertEquals(List.of(1L), ids(dictionary.suggest("jack", 10, 20L)));
+        assertTrue(dictionary.suggest("john", 10, null).isEmpty());
+
+        renamed.setStatus(EmployeeStatus.INACTIVE);
+        dictionary.indexAfterCommit(renamed);
+
+        assertTrue(dictionary.suggest("jack", 10, null).isEmpty());
+    }
+
+    private List<Long> ids(List<EmployeeSuggestionDTO> suggestions) {
+        return suggestions.stream().map(EmployeeSuggestionDTO::getEmpId).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeResponseDTO;
+import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.dto.PageSlice;
+import com.example.erm.entities.Department;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSearchCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeSearchCache cache;
+    private AtomicInteger loads;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EmployeeSearchCache(true, 2, Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+        admin = new User();
+        admin.setRole(UserRole.ADMIN);
+    }
+
+    @Test
+    void get_ShouldServeEquivalentCriteriaFromCache() {
+        EmployeeSearchCriteria first = criteria(3L, EmployeeStatus.ACTIVE);
+        first.setSearchTerm("Smith");
+        EmployeeSearchCriteria second = criteria(3L, EmployeeStatus.ACTIVE);
+        second.setSearchTerm("smith");
+        second.setSortDirection("asc");
+
+        cache.get(first, admin, this::load);
+        cache.get(second, admin, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("erm.search.cache.hits").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("erm.search.cache.misses").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldKeepManagerScopesApart() {
+        User manager = new User();
+        manager.setRole(UserRole.MANAGER);
+        Department department = new Department();
+        department.setDeptId(7L);
+        manager.setDepartment(department);
+
+        cache.get(criteria(null, null), admin, this::load);
+        cache.get(criteria(null, null), manager, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldOnlyDropEntriesMatchingDepartmentAndStatus() {
+        cache.get(criteria(3L, EmployeeStatus.ACTIVE), admin, this::load);
+        cache.get(criteria(4L, EmployeeStatus.ACTIVE), admin, this::load);
+
+        cache.invalidateAfterCommit(3L, EmployeeStatus.ACTIVE, 3L, EmployeeStatus.ON_LEAVE);
+
+        assertEquals(1, cache.size());
+        cache.get(criteria(4L, EmployeeStatus.ACTIVE), admin, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateDepartment_ShouldDropThatDepartmentsPagesInAnyStatus() {
+        cache.get(criteria(3L, EmployeeStatus.ON_LEAVE), admin, this::load);
+        cache.get(criteria(4L, null), admin, this::load);
+
+        cache.invalidateDepartmentAfterCommit(3L);
+
+        assertEquals(1, cache.size());
+        cache.invalidateAllAfterCommit();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsedBeyondCapacity() {
+        cache.get(criteria(1L, null), admin, this::load);
+        cache.get(criteria(2L, null), admin, this::load);
+        cache.get(criteria(1L, null), admin, this::load);
+        cache.get(criteria(3L, null), admin, this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, meterRegistry.get("erm.search.cache.evictions").functionCounter().count());
+        cache.get(criteria(1L, null), admin, this::load);
+        assertEquals(3, loads.get());
+    }
+
+    private EmployeeSearchCriteria criteria(Long deptId, EmployeeStatus status) {
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setDepartmentId(deptId);
+        criteria.setStatus(status);
+        return criteria;
+    }
+
+    private PageSlice<EmployeeResponseDTO> load() {
+        loads.incrementAndGet();
+        return new PageSlice<>(List.of(), 0, 10, 0, true, true, false, true, 0L, 0, false);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.erm.services;
+
+import com.example.erm.dto.EmployeeSearchCriteria;
+import com.example.erm.entities.Department;
+import com.example.erm.entities.Employee;
+import com.example.erm.entities.EmployeeStatus;
+import com.example.erm.repositories.EmployeeRepository;
+import com.example.erm.support.CapturingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The SQL the search endpoints issue: only the filters present become predicates, and substring filters
+// become an empId IN list when the text index resolves them
+@DataJpaTest
+@ActiveProfiles("h2")
+class EmployeeSearchSpecificationTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Department department;
+    private EmployeeTextIndex textIndex;
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setDeptName("SpecDept");
+        entityManager.persist(department);
+        entityManager.persist(employee("Quillon", "Archivist"));
+        entityManager.persist(employee("Quillard", "Archivist"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Not rebuilt until a test asks for it, so substring filters fall back to LIKE
+        useTextIndex(1000);
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    void noFilters_ShouldEmitNoWhereClause() {
+        String sql = searchSql(new EmployeeSearchCriteria());
+
+        assertFalse(sql.contains(" where "), sql);
+    }
+
+    @Test
+    void statusOnly_ShouldEmitOnlyStatusPredicate() {
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setStatus(EmployeeStatus.ACTIVE);
+
+        String sql = where(searchSql(criteria));
+
+        assertTrue(sql.contains("status=?"), sql);
+        assertFalse(sql.contains("dept_id"), sql);
+        assertFalse(sql.contains("hire_date"), sql);
+        assertFalse(sql.contains("like"), sql);
+        assertFalse(sql.contains("isnull"), sql);
+    }
+
+    @Test
+    void departmentAndHireDateRange_ShouldUseForeignKeyColumnWithoutJoin() {
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setDepartmentId(3L);
+        criteria.setHireDateStart(LocalDate.of(2020, 1, 1));
+        criteria.setHireDateEnd(LocalDate.of(2020, 12, 31));
+
+        String sql = searchSql(criteria);
+
+        // The projection's own left joins only, the department filter adds none
+        assertEquals(occurrences(sql, " join "), occurrences(sql, " left join "), sql);
+        String where = where(sql);
+        assertTrue(where.contains("dept_id=?"), where);
+        assertTrue(where.contains("hire_date>=?"), where);
+        assertTrue(where.contains("hire_date<=?"), where);
+        assertFalse(where.contains("status"), where);
+        assertFalse(where.contains("isnull"), where);
+    }
+
+    @Test
+    void searchTerm_WithoutIndexShouldOnlyAddNameLikePredicates() {
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setSearchTerm("Quill");
+
+        String where = where(searchSql(criteria));
+
+        assertTrue(where.contains("first_name"), where);
+        assertTrue(where.contains("last_name"), where);
+        assertFalse(where.contains("job_title"), where);
+        assertFalse(where.contains("dept_id"), where);
+    }
+
+    @Test
+    void searchTermAndJobTitle_WithIndexShouldBecomeOneEmpIdInList() {
+        textIndex.rebuild();
+        CapturingStatementInspector.clear();
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setSearchTerm("Quill");
+        criteria.setJobTitle("archiv");
+
+        String where = where(searchSql(criteria));
+
+        assertEquals(1, occurrences(where, "emp_idin("), where);
+        assertEquals(2, occurrences(where, "?"), where);
+        assertFalse(where.contains("like"), where);
+    }
+
+    @Test
+    void searchTerm_MatchingMoreThanMaxCandidatesShouldFallBackToLike() {
+        useTextIndex(1);
+        textIndex.rebuild();
+        CapturingStatementInspector.clear();
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setSearchTerm("Quill");
+
+        String where = where(searchSql(criteria));
+
+        assertTrue(where.contains("like"), where);
+        assertFalse(where.contains("emp_idin("), where);
+    }
+
+    @Test
+    void maxCandidates_ShouldBeCappedAtOraclesInListLimit() {
+        for (int i = 0; i < 1000; i++) {
+            entityManager.persist(employee("Quillbulk" + i, "Clerk"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        useTextIndex(5000);
+        textIndex.rebuild();
+        CapturingStatementInspector.clear();
+        EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+        criteria.setSearchTerm("Quill");
+
+        String where = where(searchSql(criteria));
+
+        assertTrue(where.contains("like"), where);
+        assertFalse(where.contains("emp_idin("), where);
+    }
+
+    private void useTextIndex(int maxCandidates) {
+        textIndex = new EmployeeTextIndex(employeeRepository, true, maxCandidates);
+        employeeService = new EmployeeService(employeeRepository, null, null, textIndex,
+                null, null, null, null, null, 500);
+    }
+
+    private String searchSql(EmployeeSearchCriteria criteria) {
+        employeeRepository.findResponsePage(employeeService.buildSearchSpecification(criteria),
+                PageRequest.of(0, 10, Sort.by("empId")));
+        return CapturingStatementInspector.selects().stream()
+                .filter(sql -> sql.contains("employees") && !sql.toLowerCase().contains("count("))
+                .findFirst()
+                .orElseThrow()
+                .toLowerCase()
+                .replaceAll("\\s+", " ");
+    }
+
+    private String where(String sql) {
+        int start = sql.indexOf(" where ");
+        int end = sql.indexOf(" order by ");
+        return start < 0 ? "" : sql.substring(start, end < 0 ? sql.length() : end).replace(" ", "");
+    }
+
+    private int occurrences(String text, String needle) {
+        return text.split(Pattern.quote(needle), -1).length - 1;
+    }
+
+    private Employee employee(String name, String jobTitle) {
+        Employee employee = new Employee();
+        employee.setFirstName(name);
+        employee.setLastName("Spec");
+        employee.setEmail(name.toLowerCase() + "@example.com");
+        employee.setHireDate(LocalDate.of(2021, 1, 1));
+        employee.setJobTitle(jobTitle);
+        employee.setSalary(new BigDecimal("1000"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
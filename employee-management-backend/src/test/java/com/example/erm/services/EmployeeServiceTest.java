@@ -9,7 +9,6 @@ import com.example.erm.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -40,7 +39,18 @@ class EmployeeServiceTest {
     @Mock
     private AuditService auditService;
 
-    @InjectMocks
+    @Mock
+    private EmployeeTextIndex employeeTextIndex;
+
+    @Mock
+    private EmployeeNameDictionary employeeNameDictionary;
+
+    @Mock
+    private EmployeeCountEstimator employeeCountEstimator;
+
+    @Mock
+    private EmployeeSearchCache employeeSearchCache;
+
     private EmployeeService employeeService;
 
     private User currentUser;
@@ -48,6 +58,10 @@ class EmployeeServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Built by hand since the keyset size limit is a plain int Mockito cannot inject
+        employeeService = new EmployeeService(employeeRepository, departmentRepository, auditService,
+                employeeTextIndex, employeeNameDictionary, employeeCountEstimator, employeeSearchCache,
+                null, null, 500);
         currentUser = createSampleUser(); // Create a sample user for testing
         Department department = new Department();
         department.setDeptName("Engineering");
@@ -60,8 +74,7 @@ class EmployeeServiceTest {
         // Arrange
         EmployeeDTO employeeDTO = createSampleEmployeeDTO();
         Employee employee = convertToEmployeeEntity(employeeDTO); // Convert DTO to entity
-        Department department = employee.getDepartment();
-        when(departmentRepository.findById(anyLong())).thenReturn(Optional.of(department));
+        when(departmentRepository.existsById(anyLong())).thenReturn(true);
         when(employeeRepository.save(any(Employee.class))).thenReturn(employee);
 
         // Act
@@ -93,7 +106,7 @@ class EmployeeServiceTest {
     void createEmployee_WithInvalidDepartment_ShouldThrowException() {
         // Arrange
         EmployeeDTO employeeDTO = createSampleEmployeeDTO();
-        when(departmentRepository.findById(anyLong())).thenReturn(Optional.empty()); // Simulate invalid department
+        when(departmentRepository.existsById(anyLong())).thenReturn(false); // Simulate invalid department
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () ->
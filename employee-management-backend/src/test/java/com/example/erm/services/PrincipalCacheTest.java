@@ -0,0 +1,80 @@
+package com.example.erm.services;
+
+import com.example.erm.entities.Department;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import com.example.erm.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PrincipalCache(userRepository, true, 10, Duration.ofMinutes(1), meterRegistry);
+        when(userRepository.findByUsername("manager")).thenReturn(Optional.of(manager(UserRole.MANAGER)));
+    }
+
+    @Test
+    void findByUsername_ShouldLoadOnceAndKeepRoleAndDepartment() {
+        cache.findByUsername("manager");
+        User cached = cache.findByUsername("manager").orElseThrow();
+
+        verify(userRepository, times(1)).findByUsername("manager");
+        assertEquals(UserRole.MANAGER, cached.getRole());
+        assertEquals(7L, cached.getDepartment().getDeptId());
+        assertEquals(1.0, meterRegistry.get("erm.security.principal-cache.hits").functionCounter().count());
+    }
+
+    @Test
+    void findByUsername_ShouldHandOutCopies() {
+        cache.findByUsername("manager").orElseThrow().setRole(UserRole.ADMIN);
+
+        assertEquals(UserRole.MANAGER, cache.findByUsername("manager").orElseThrow().getRole());
+    }
+
+    @Test
+    void invalidate_ShouldReloadTheChangedUser() {
+        cache.findByUsername("manager");
+        when(userRepository.findByUsername("manager")).thenReturn(Optional.of(manager(UserRole.HR)));
+
+        cache.invalidateAfterCommit("manager");
+
+        assertEquals(UserRole.HR, cache.findByUsername("manager").orElseThrow().getRole());
+        verify(userRepository, times(2)).findByUsername("manager");
+    }
+
+    @Test
+    void findByUsername_ShouldNotCacheUnknownUsers() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertTrue(cache.findByUsername("ghost").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    private User manager(UserRole role) {
+        Department department = new Department();
+        department.setDeptId(7L);
+        department.setDeptName("Sales");
+        User user = new User();
+        user.setUserId(1L);
+        user.setUsername("manager");
+        user.setRole(role);
+        user.setDepartment(department);
+        user.setVersion(0L);
+        return user;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.erm.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    @Test
+    void search_ShouldMatchSubstringInAnyField() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "John", "Smith");
+        index.put(2L, "Anna", "Smithers");
+        index.put(3L, "Mith", "Jones");
+
+        assertEquals(Set.of(1L, 2L), index.search("SMIT"));
+        assertEquals(Set.of(1L, 2L, 3L), index.search("mit"));
+        assertEquals(Set.of(), index.search("xyz"));
+    }
+
+    @Test
+    void search_ShouldNotMatchAcrossFields() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Ann", "Ott");
+
+        assertEquals(Set.of(), index.search("nnot"));
+    }
+
+    @Test
+    void put_ShouldReplacePreviousTexts() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Software Engineer");
+        index.put(1L, "Product Manager");
+
+        assertEquals(Set.of(), index.search("engineer"));
+        assertEquals(Set.of(1L), index.search("manager"));
+
+        index.remove(1L);
+        assertEquals(Set.of(), index.search("manager"));
+    }
+
+    @Test
+    void supports_ShouldRequireAtLeastOneTrigram() {
+        assertFalse(TrigramIndex.supports("ab"));
+        assertTrue(TrigramIndex.supports("abc"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.erm.services;
+
+import com.example.erm.config.AdaptivePasswordEncoder;
+import com.example.erm.entities.User;
+import com.example.erm.entities.UserRole;
+import com.example.erm.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class UserServiceRehashTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdaptivePasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordRehashMonitor rehashMonitor;
+
+    @Test
+    void loginUser_ShouldRehashAtTheCurrentStrength() {
+        User stored = new User();
+        stored.setUsername("legacy");
+        stored.setEmail("legacy@example.com");
+        stored.setRole(UserRole.HR);
+        stored.setPasswordHash(new BCryptPasswordEncoder(4).encode("secret"));
+        stored = userRepository.save(stored);
+        rehashMonitor.refresh();
+        long pending = rehashMonitor.pending();
+
+        User login = new User();
+        login.setUsername("legacy");
+        login.setPasswordHash("secret");
+        userService.loginUser(login);
+
+        String rehashed = userRepository.findById(stored.getUserId()).orElseThrow().getPasswordHash();
+        assertEquals(passwordEncoder.strength(), AdaptivePasswordEncoder.costOf(rehashed));
+        assertTrue(passwordEncoder.matches("secret", rehashed));
+        assertEquals(pending - 1, rehashMonitor.pending());
+        rehashMonitor.refresh();
+        assertEquals(pending - 1, rehashMonitor.pending());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.erm.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records every SQL statement Hibernate prepares so tests can assert on its shape and count
+public class CapturingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void clear() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+
+    public static List<String> selects() {
+        return statements().stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+    }
+}
@@ -1,11 +1,13 @@
         package com.employeemanagement.ui;
 
+        import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
         import com.fasterxml.jackson.annotation.JsonProperty;
         import lombok.Data;
 
         import java.util.Date;
 
         @Data
+        @JsonIgnoreProperties(ignoreUnknown = true)
         public class Employee {
                 @JsonProperty("empId")
                 private Long empId;
@@ -55,5 +57,9 @@
                 @JsonProperty("updatedBy")
                 private String updatedBy;
 
+                // Optimistic-lock version the server expects back in If-Match
+                @JsonProperty("version")
+                private Long version;
+
         }
 
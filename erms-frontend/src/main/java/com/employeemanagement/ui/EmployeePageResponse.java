@@ -10,17 +10,22 @@ public class EmployeePageResponse {
     @JsonProperty("content")
     private List<Employee> employees;
 
-    @JsonProperty("pageable")
-    private PageableInfo pageable;
-
     @JsonProperty("last")
     private boolean last;
 
+    @JsonProperty("hasNext")
+    private boolean hasNext;
+
+    // Null when requested with withTotal=false
     @JsonProperty("totalPages")
-    private int totalPages;
+    private Integer totalPages;
 
     @JsonProperty("totalElements")
-    private long totalElements;
+    private Long totalElements;
+
+    // True when totalElements comes from cached statistics rather than a COUNT
+    @JsonProperty("totalEstimated")
+    private boolean totalEstimated;
 
     @JsonProperty("size")
     private int size;
@@ -28,9 +33,6 @@ public class EmployeePageResponse {
     @JsonProperty("number")
     private int number;
 
-    @JsonProperty("sort")
-    private SortInfo sort;
-
     @JsonProperty("first")
     private boolean first;
 
@@ -39,37 +41,4 @@ public class EmployeePageResponse {
 
     @JsonProperty("empty")
     private boolean empty;
-
-    @Data
-    public static class PageableInfo {
-        @JsonProperty("pageNumber")
-        private int pageNumber;
-
-        @JsonProperty("pageSize")
-        private int pageSize;
-
-        @JsonProperty("sort")
-        private SortInfo sort;
-
-        @JsonProperty("offset")
-        private long offset;
-
-        @JsonProperty("paged")
-        private boolean paged;
-
-        @JsonProperty("unpaged")
-        private boolean unpaged;
-    }
-
-    @Data
-    public static class SortInfo {
-        @JsonProperty("empty")
-        private boolean empty;
-
-        @JsonProperty("unsorted")
-        private boolean unsorted;
-
-        @JsonProperty("sorted")
-        private boolean sorted;
-    }
 }
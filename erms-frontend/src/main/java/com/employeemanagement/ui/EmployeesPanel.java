@@ -104,7 +104,7 @@ public class EmployeesPanel extends JPanel {
         );
         try {
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_BASE_URL))
+                    .uri(URI.create(API_BASE_URL + "?withTotal=estimate"))
                     .header("Authorization", "Basic " + encodedCredentials)
                     .header("Content-Type", "application/json")
                     .GET()
@@ -152,13 +152,25 @@ public class EmployeesPanel extends JPanel {
         }
     }
     private void updateStatusWithPaginationInfo(EmployeePageResponse response) {
-        String statusText = String.format(
-                "Showing %d of %d employees (Page %d of %d)",
-                response.getNumberOfElements(),
-                response.getTotalElements(),
-                response.getNumber() + 1,
-                response.getTotalPages()
-        );
+        String statusText;
+        if (response.getTotalElements() == null) {
+            statusText = String.format(
+                    "Showing %d employees (Page %d%s)",
+                    response.getNumberOfElements(),
+                    response.getNumber() + 1,
+                    response.isHasNext() ? ", more available" : ""
+            );
+        } else {
+            statusText = String.format(
+                    "Showing %d of %s%d employees (Page %d of %s%d)",
+                    response.getNumberOfElements(),
+                    response.isTotalEstimated() ? "~" : "",
+                    response.getTotalElements(),
+                    response.getNumber() + 1,
+                    response.isTotalEstimated() ? "~" : "",
+                    response.getTotalPages()
+            );
+        }
 
 
     }
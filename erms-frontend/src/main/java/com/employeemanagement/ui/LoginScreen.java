@@ -13,6 +13,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URI;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
@@ -200,6 +201,7 @@ public class LoginScreen extends JFrame {
 @Setter
 @Getter
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 class User {
     // Getters and setters
     private Long userId;